@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.api;
+
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Callback to provide a placeholder replacement which may be slow to compute, for example because it reads data from a
+ * database. Registering an instance of this interface makes Chest Commands invoke it outside the main server thread.
+ * <p>
+ * While the replacement is being computed, the menu displays the last known replacement or, if none is available,
+ * the pending replacement. When the replacement is ready, the open menu of the player is updated.
+ * <p>
+ * The replacement is reused according to the {@link PlaceholderCachePolicy} used to register the placeholder.
+ *
+ * @see ChestCommandsAPI#registerPlaceholder(Plugin, String, PlaceholderCachePolicy, PlaceholderReplacer)
+ * @since 2
+ */
+public interface AsyncPlaceholderReplacer extends PlaceholderReplacer {
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * <b>Warning</b>: this method is invoked outside the main server thread, it should not use the Bukkit API in ways
+     * that are not thread-safe.
+     *
+     * @since 2
+     */
+    @Override
+    @Nullable String getReplacement(@NotNull Player player, @Nullable String argument);
+
+    /**
+     * Returns the text displayed while the replacement is being computed for the first time.
+     *
+     * @param player   the player viewing the placeholder
+     * @param argument the argument inside the placeholder, if present
+     * @return the text displayed until the replacement is ready
+     * @since 2
+     */
+    default @NotNull String getPendingReplacement(@NotNull Player player, @Nullable String argument) {
+        return "...";
+    }
+
+}
@@ -39,7 +39,7 @@ public class ChestCommandsAPI {
      * @since 1
      */
     public static int getAPIVersion() {
-        return 1;
+        return 2;
     }
 
     /**
@@ -79,7 +79,27 @@ public class ChestCommandsAPI {
     public static void registerPlaceholder(@NotNull Plugin plugin,
                                            @NotNull String identifier,
                                            @NotNull PlaceholderReplacer placeholderReplacer) {
-        BackendAPI.getImplementation().registerPlaceholder(plugin, identifier, placeholderReplacer);
+        BackendAPI.getImplementation().registerPlaceholder(plugin, identifier, PlaceholderCachePolicy.everyTick(), placeholderReplacer);
+    }
+
+    /**
+     * Registers a placeholder like {@link #registerPlaceholder(Plugin, String, PlaceholderReplacer)}, with a cache
+     * policy defining for how long the replacement is reused before invoking the placeholder replacer again.
+     *
+     * @param plugin              the plugin registering the placeholder
+     * @param identifier          the case-insensitive identifier of the placeholder, which can only contain letters,
+     *                            digits and underscores; its length must be between 1 and 30 characters
+     * @param cachePolicy         the policy defining for how long the replacement is reused
+     * @param placeholderReplacer the callback that returns the displayed value
+     * @throws IllegalArgumentException if the identifier contains invalid characters, is too short or too long
+     * @see PlaceholderCachePolicy
+     * @since 2
+     */
+    public static void registerPlaceholder(@NotNull Plugin plugin,
+                                           @NotNull String identifier,
+                                           @NotNull PlaceholderCachePolicy cachePolicy,
+                                           @NotNull PlaceholderReplacer placeholderReplacer) {
+        BackendAPI.getImplementation().registerPlaceholder(plugin, identifier, cachePolicy, placeholderReplacer);
     }
 
     /**
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.api;
+
+import me.filoghost.fcommons.Preconditions;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Defines for how long the replacement of a placeholder is reused before invoking again its {@link
+ * PlaceholderReplacer}.
+ * <p>
+ * Expensive replacers (for example those reading data from other plugins or from a database) should use a longer
+ * duration, so that they are invoked less often.
+ *
+ * @see ChestCommandsAPI#registerPlaceholder(Plugin, String, PlaceholderCachePolicy, PlaceholderReplacer)
+ * @since 2
+ */
+public final class PlaceholderCachePolicy {
+
+    private static final int NEVER_EXPIRES = -1;
+
+    private static final PlaceholderCachePolicy EVERY_TICK = new PlaceholderCachePolicy(1, false);
+    private static final PlaceholderCachePolicy SESSION = new PlaceholderCachePolicy(NEVER_EXPIRES, false);
+    private static final PlaceholderCachePolicy PERMANENT = new PlaceholderCachePolicy(NEVER_EXPIRES, true);
+
+    private final int durationTicks;
+    private final boolean viewerIndependent;
+
+    private PlaceholderCachePolicy(int durationTicks, boolean viewerIndependent) {
+        this.durationTicks = durationTicks;
+        this.viewerIndependent = viewerIndependent;
+    }
+
+    /**
+     * Returns the policy that computes the replacement at most once per tick for each player. This is the default
+     * policy, used when none is specified.
+     *
+     * @return the policy
+     * @since 2
+     */
+    public static @NotNull PlaceholderCachePolicy everyTick() {
+        return EVERY_TICK;
+    }
+
+    /**
+     * Returns a policy that reuses the replacement for each player for the given number of ticks. The replacement is
+     * also computed again after the player clicks an icon, as the click may change the displayed value.
+     *
+     * @param ticks the number of ticks after which the replacement expires, must be positive
+     * @return the policy
+     * @throws IllegalArgumentException if the number of ticks is not positive
+     * @since 2
+     */
+    public static @NotNull PlaceholderCachePolicy ticks(int ticks) {
+        Preconditions.checkArgument(ticks > 0, "ticks must be positive");
+        if (ticks == 1) {
+            return EVERY_TICK;
+        }
+        return new PlaceholderCachePolicy(ticks, false);
+    }
+
+    /**
+     * Returns the policy that computes the replacement only once for each player, until the player leaves the server.
+     *
+     * @return the policy
+     * @since 2
+     */
+    public static @NotNull PlaceholderCachePolicy session() {
+        return SESSION;
+    }
+
+    /**
+     * Returns the policy that computes the replacement only once and shows it to all the players. The replacer
+     * should not depend on the {@link Player} argument.
+     * <p>
+     * This is equivalent to {@code session().viewerIndependent()}.
+     *
+     * @return the policy
+     * @since 2
+     */
+    public static @NotNull PlaceholderCachePolicy permanent() {
+        return PERMANENT;
+    }
+
+    /**
+     * Returns a policy with the same duration, whose replacement is computed once and shown to all the players, for
+     * example the number of online players. The replacer should not depend on the {@link Player} argument.
+     *
+     * @return the viewer-independent policy
+     * @since 2
+     */
+    public @NotNull PlaceholderCachePolicy viewerIndependent() {
+        if (viewerIndependent) {
+            return this;
+        }
+        return new PlaceholderCachePolicy(durationTicks, true);
+    }
+
+    /**
+     * Returns the number of ticks after which the replacement expires.
+     *
+     * @return the number of ticks, or -1 if the replacement never expires
+     * @since 2
+     */
+    public int getDurationTicks() {
+        return durationTicks;
+    }
+
+    /**
+     * Returns if the replacement never expires.
+     *
+     * @return true if the replacement never expires, false otherwise
+     * @since 2
+     */
+    public boolean isNeverExpiring() {
+        return durationTicks == NEVER_EXPIRES;
+    }
+
+    /**
+     * Returns if the same replacement is shown to all the players.
+     *
+     * @return true if the replacement doesn't depend on the player, false otherwise
+     * @since 2
+     */
+    public boolean isViewerIndependent() {
+        return viewerIndependent;
+    }
+
+}
@@ -7,6 +7,7 @@ package me.filoghost.chestcommands.api.internal;
 
 import me.filoghost.chestcommands.api.ConfigurableIcon;
 import me.filoghost.chestcommands.api.Menu;
+import me.filoghost.chestcommands.api.PlaceholderCachePolicy;
 import me.filoghost.chestcommands.api.PlaceholderReplacer;
 import me.filoghost.chestcommands.api.StaticIcon;
 import me.filoghost.fcommons.Preconditions;
@@ -50,6 +51,7 @@ public abstract class BackendAPI {
 
     public abstract void registerPlaceholder(@NotNull Plugin plugin,
                                              @NotNull String identifier,
+                                             @NotNull PlaceholderCachePolicy cachePolicy,
                                              @NotNull PlaceholderReplacer placeholderReplacer);
 
     public abstract boolean unregisterPlaceholder(@NotNull Plugin plugin, @NotNull String identifier);
@@ -8,24 +8,29 @@ package me.filoghost.chestcommands;
 import me.filoghost.chestcommands.api.internal.BackendAPI;
 import me.filoghost.chestcommands.command.CommandHandler;
 import me.filoghost.chestcommands.config.ConfigManager;
+import me.filoghost.chestcommands.config.ConfigManager.ReadMenuFiles;
 import me.filoghost.chestcommands.config.CustomPlaceholders;
+import me.filoghost.chestcommands.config.MenuFolderWatcher;
 import me.filoghost.chestcommands.config.Settings;
 import me.filoghost.chestcommands.hook.BarAPIHook;
 import me.filoghost.chestcommands.hook.BungeeCordHook;
 import me.filoghost.chestcommands.hook.PlaceholderAPIHook;
 import me.filoghost.chestcommands.hook.VaultEconomyHook;
 import me.filoghost.chestcommands.hook.ItemsAdderHook;
+import me.filoghost.chestcommands.icon.SkullOwnerCache;
 import me.filoghost.chestcommands.legacy.UpgradeExecutorException;
 import me.filoghost.chestcommands.legacy.UpgradesExecutor;
 import me.filoghost.chestcommands.listener.CommandListener;
 import me.filoghost.chestcommands.listener.InventoryListener;
 import me.filoghost.chestcommands.listener.JoinListener;
+import me.filoghost.chestcommands.listener.QuitListener;
 import me.filoghost.chestcommands.listener.SignListener;
 import me.filoghost.chestcommands.logging.Errors;
 import me.filoghost.chestcommands.logging.PrintableErrorCollector;
 import me.filoghost.chestcommands.menu.MenuManager;
 import me.filoghost.chestcommands.parsing.menu.LoadedMenu;
 import me.filoghost.chestcommands.placeholder.PlaceholderManager;
+import me.filoghost.chestcommands.task.ClickQueue;
 import me.filoghost.chestcommands.task.TickingTask;
 import me.filoghost.fcommons.FCommonsPlugin;
 import me.filoghost.fcommons.config.ConfigLoader;
@@ -50,13 +55,18 @@ public class ChestCommands extends FCommonsPlugin {
     public static final String CHAT_PREFIX = ChatColor.DARK_GREEN + "[" + ChatColor.GREEN + "ChestCommands" + ChatColor.DARK_GREEN + "] " + ChatColor.GREEN;
 
     private static ChestCommands pluginInstance;
+    private static final Object loadLock = new Object(); // Menus may also be loaded outside the main thread
+    private static int loadCount;
+
     private static Path dataFolderPath;
 
     private static ConfigManager configManager;
     private static CustomPlaceholders placeholders;
     private static MenuCreatorListener menuCreatorListener;
 
-    private static ErrorCollector lastLoadErrors;
+    private static PrintableErrorCollector lastLoadErrors;
+    private static PrintableErrorCollector lastConfigErrors; // The errors of the last load not related to menu files
+    private static MenuFolderWatcher menuFolderWatcher;
     private static String newVersion;
 
     @Override
@@ -78,7 +88,7 @@ public class ChestCommands extends FCommonsPlugin {
 
         pluginInstance = this;
         dataFolderPath = getDataFolder().toPath();
-        configManager = new ConfigManager(getDataFolderPath());
+        configManager = new ConfigManager(getDataFolderPath(), getDescription().getVersion());
         placeholders = new CustomPlaceholders();
         menuCreatorListener = new MenuCreatorListener(this);
 
@@ -107,6 +117,7 @@ public class ChestCommands extends FCommonsPlugin {
         Bukkit.getPluginManager().registerEvents(new CommandListener(), this);
         Bukkit.getPluginManager().registerEvents(new InventoryListener(), this);
         Bukkit.getPluginManager().registerEvents(new JoinListener(), this);
+        Bukkit.getPluginManager().registerEvents(new QuitListener(), this);
         Bukkit.getPluginManager().registerEvents(new SignListener(), this);
 
         new CommandHandler("chestcommands").register(this);
@@ -149,12 +160,26 @@ public class ChestCommands extends FCommonsPlugin {
 
     @Override
     public void onDisable() {
+        if (menuFolderWatcher != null) {
+            menuFolderWatcher.stop();
+        }
         MenuManager.closeAllOpenMenuViews();
+        PlaceholderManager.shutdown();
     }
 
     public static ErrorCollector load() {
-        ErrorCollector errorCollector = new PrintableErrorCollector();
-        MenuManager.reset();
+        ErrorCollector errorCollector;
+        synchronized (loadLock) {
+            loadCount++;
+            errorCollector = loadConfigsAndMenus();
+        }
+
+        updateMenuFolderWatcher();
+        return errorCollector;
+    }
+
+    private static ErrorCollector loadConfigsAndMenus() {
+        PrintableErrorCollector errorCollector = new PrintableErrorCollector();
         boolean isFreshInstall = !Files.isDirectory(configManager.getRootDataFolder());
         try {
             Files.createDirectories(configManager.getRootDataFolder());
@@ -175,6 +200,8 @@ public class ChestCommands extends FCommonsPlugin {
         }
 
         configManager.tryLoadSettings(errorCollector);
+        SkullOwnerCache.setMaxSize(Settings.get().skull_owner_cache__max_size);
+        ClickQueue.setMaxSize(Settings.get().click_queue_max_size);
         configManager.tryLoadLang(errorCollector);
         placeholders = configManager.tryLoadCustomPlaceholders(errorCollector);
         PlaceholderManager.setStaticPlaceholders(placeholders.getPlaceholders());
@@ -185,15 +212,81 @@ public class ChestCommands extends FCommonsPlugin {
             configManager.tryCreateDefault(errorCollector, exampleMenuLoader);
         }
 
+        PrintableErrorCollector configErrors = new PrintableErrorCollector();
+        configErrors.addAll(errorCollector);
+        ChestCommands.lastConfigErrors = configErrors;
+
         List<LoadedMenu> loadedMenus = configManager.tryLoadMenus(errorCollector);
-        for (LoadedMenu loadedMenu : loadedMenus) {
-            MenuManager.registerMenu(loadedMenu, errorCollector);
-        }
+        MenuManager.setMenus(loadedMenus, errorCollector);
 
         ChestCommands.lastLoadErrors = errorCollector;
         return errorCollector;
     }
 
+    private static void updateMenuFolderWatcher() {
+        if (menuFolderWatcher != null) {
+            menuFolderWatcher.stop();
+            menuFolderWatcher = null;
+        }
+
+        if (Settings.get() != null && Settings.get().auto_reload_menus__enabled && Files.isDirectory(configManager.getMenusFolder())) {
+            MenuFolderWatcher watcher = new MenuFolderWatcher(
+                    configManager.getMenusFolder(),
+                    Settings.get().auto_reload_menus__delay_millis,
+                    ChestCommands::reloadChangedMenus);
+            try {
+                watcher.start();
+                menuFolderWatcher = watcher;
+            } catch (IOException e) {
+                Log.warning("Couldn't watch the menus folder for changes: " + e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * Invoked by the menu folder watcher, outside the main thread. Only the changed files are read here, the menus are parsed
+     * and created on the main thread.
+     */
+    private static void reloadChangedMenus() {
+        PrintableErrorCollector errorCollector = new PrintableErrorCollector();
+        ReadMenuFiles readMenuFiles;
+        int reloadCount;
+
+        synchronized (loadLock) {
+            readMenuFiles = configManager.tryReadMenuFiles(errorCollector);
+            reloadCount = ++loadCount;
+        }
+
+        // Apply all the changes at once on the main thread
+        Bukkit.getScheduler().runTask(pluginInstance, () -> {
+            List<LoadedMenu> loadedMenus;
+
+            synchronized (loadLock) {
+                if (reloadCount != loadCount) {
+                    return; // Discard the result if menus were loaded again in the meantime
+                }
+                loadedMenus = configManager.loadMenus(readMenuFiles, errorCollector);
+            }
+
+            MenuManager.closeReplacedMenuViews(loadedMenus);
+            MenuManager.setMenus(loadedMenus, errorCollector);
+
+            // The errors of all the menus are collected again, the other files were not loaded again
+            PrintableErrorCollector loadErrors = new PrintableErrorCollector();
+            if (lastConfigErrors != null) {
+                loadErrors.addAll(lastConfigErrors);
+            }
+            loadErrors.addAll(errorCollector);
+            ChestCommands.lastLoadErrors = loadErrors;
+
+            if (errorCollector.hasErrors()) {
+                errorCollector.logToConsole();
+            } else {
+                Log.info("Reloaded the changed menus.");
+            }
+        });
+    }
+
 
     public static ChestCommands getInstance() {
         return pluginInstance;
@@ -215,4 +308,13 @@ public class ChestCommands extends FCommonsPlugin {
         return lastLoadErrors;
     }
 
+    /*
+     * Adds errors found after loading, for example by menus whose icons are loaded when opened.
+     */
+    public static void addLastLoadErrors(PrintableErrorCollector errorCollector) {
+        if (lastLoadErrors != null) {
+            lastLoadErrors.addAll(errorCollector);
+        }
+    }
+
 }
@@ -7,6 +7,7 @@ package me.filoghost.chestcommands;
 
 import me.filoghost.chestcommands.api.ConfigurableIcon;
 import me.filoghost.chestcommands.api.Menu;
+import me.filoghost.chestcommands.api.PlaceholderCachePolicy;
 import me.filoghost.chestcommands.api.PlaceholderReplacer;
 import me.filoghost.chestcommands.api.StaticIcon;
 import me.filoghost.chestcommands.api.internal.BackendAPI;
@@ -65,8 +66,9 @@ public class DefaultBackendAPI extends BackendAPI {
     @Override
     public void registerPlaceholder(@NotNull Plugin plugin,
                                     @NotNull String identifier,
+                                    @NotNull PlaceholderCachePolicy cachePolicy,
                                     @NotNull PlaceholderReplacer placeholderReplacer) {
-        PlaceholderManager.registerPluginPlaceholder(plugin, identifier, placeholderReplacer);
+        PlaceholderManager.registerPluginPlaceholder(plugin, identifier, cachePolicy, placeholderReplacer);
     }
 
     @Override
@@ -7,17 +7,19 @@ package me.filoghost.chestcommands.attribute;
 
 import me.filoghost.chestcommands.icon.InternalConfigurableIcon;
 import me.filoghost.chestcommands.parsing.ParseException;
+import me.filoghost.chestcommands.util.nbt.NBTCompound;
 import me.filoghost.chestcommands.util.nbt.parser.MojangsonParseException;
 import me.filoghost.chestcommands.util.nbt.parser.MojangsonParser;
 
 public class NBTDataAttribute implements IconAttribute {
 
     private final String nbtData;
+    private final NBTCompound parsedNBTData;
 
     public NBTDataAttribute(String nbtData, AttributeErrorHandler errorHandler) throws ParseException {
         try {
-            // Check that NBT syntax is valid before applying it to the icon
-            MojangsonParser.parse(nbtData);
+            // Check that NBT syntax is valid before applying it to the icon, keeping the result to parse it only once
+            this.parsedNBTData = MojangsonParser.parse(nbtData);
         } catch (MojangsonParseException e) {
             throw new ParseException(e.getMessage());
         }
@@ -27,7 +29,7 @@ public class NBTDataAttribute implements IconAttribute {
 
     @Override
     public void apply(InternalConfigurableIcon icon) {
-        icon.setNBTData(nbtData);
+        icon.setNBTData(nbtData, parsedNBTData);
     }
 
 }
@@ -10,6 +10,8 @@ import me.filoghost.chestcommands.Permissions;
 import me.filoghost.chestcommands.menu.InternalMenu;
 import me.filoghost.chestcommands.menu.MenuManager;
 import me.filoghost.chestcommands.menucreator.MenuCreatorInventoryHolder;
+import me.filoghost.chestcommands.task.ClickQueue;
+import me.filoghost.chestcommands.task.TickingTask;
 import me.filoghost.chestcommands.util.Utils;
 import me.filoghost.fcommons.collection.CaseInsensitiveString;
 import me.filoghost.fcommons.command.CommandContext;
@@ -123,6 +125,34 @@ public class CommandHandler extends AnnotatedSubCommandManager {
         }
     }
 
+    @Name("stats")
+    @Description("Displays click and auto-refresh statistics.")
+    @Permission(Permissions.COMMAND_PREFIX + "stats")
+    public void stats(CommandSender sender) {
+        sender.sendMessage(ChestCommands.CHAT_PREFIX + "Clicks ignored by the anti-click-spam limit since the menus were loaded:");
+        boolean anyRejectedClicks = false;
+        for (CaseInsensitiveString name : MenuManager.getMenuFileNames()) {
+            long rejectedClicks = MenuManager.getMenuByFileName(name.toString()).getRejectedClicks();
+            if (rejectedClicks > 0) {
+                sender.sendMessage(ChatColor.GRAY + "- " + ChatColor.WHITE + name + ChatColor.GRAY + ": " + rejectedClicks);
+                anyRejectedClicks = true;
+            }
+        }
+        if (!anyRejectedClicks) {
+            sender.sendMessage(ChatColor.GRAY + "- None");
+        }
+
+        sender.sendMessage(ChestCommands.CHAT_PREFIX + "Click queue:");
+        sender.sendMessage(ChatColor.GRAY + "- Pending clicks: " + ChatColor.WHITE + ClickQueue.getPendingClicks());
+        sender.sendMessage(ChatColor.GRAY + "- Clicks handled in the last tick: " + ChatColor.WHITE + ClickQueue.getLastTickProcessedClicks()
+                + ChatColor.GRAY + " (max " + ClickQueue.getMaxTickProcessedClicks() + ")");
+        sender.sendMessage(ChatColor.GRAY + "- Ignored clicks (queue full): " + ChatColor.WHITE + ClickQueue.getDroppedClicks());
+
+        sender.sendMessage(ChestCommands.CHAT_PREFIX + "Auto-refresh:");
+        sender.sendMessage(ChatColor.GRAY + "- Refreshed slots: " + ChatColor.WHITE + TickingTask.getRefreshedSlotsCount());
+        sender.sendMessage(ChatColor.GRAY + "- Changed slots (sent to players): " + ChatColor.WHITE + TickingTask.getChangedSlotsCount());
+    }
+
     @Name("open")
     @Description("Opens a menu for a player.")
     @Permission(Permissions.COMMAND_PREFIX + "open")
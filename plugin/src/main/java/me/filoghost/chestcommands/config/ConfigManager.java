@@ -5,9 +5,16 @@
  */
 package me.filoghost.chestcommands.config;
 
+import me.filoghost.chestcommands.config.MenuFileCache.CachedMenuFile;
+import me.filoghost.chestcommands.hook.ItemsAdderHook;
+import me.filoghost.chestcommands.hook.PlaceholderAPIHook;
+import me.filoghost.chestcommands.hook.PluginHook;
+import me.filoghost.chestcommands.hook.VaultEconomyHook;
 import me.filoghost.chestcommands.logging.Errors;
+import me.filoghost.chestcommands.logging.PrintableErrorCollector;
 import me.filoghost.chestcommands.parsing.menu.LoadedMenu;
 import me.filoghost.chestcommands.parsing.menu.MenuParser;
+import me.filoghost.chestcommands.parsing.menu.RawMenu;
 import me.filoghost.fcommons.Preconditions;
 import me.filoghost.fcommons.config.BaseConfigManager;
 import me.filoghost.fcommons.config.ConfigLoader;
@@ -15,14 +22,22 @@ import me.filoghost.fcommons.config.FileConfig;
 import me.filoghost.fcommons.config.exception.ConfigException;
 import me.filoghost.fcommons.config.mapped.MappedConfigLoader;
 import me.filoghost.fcommons.logging.ErrorCollector;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -31,13 +46,17 @@ public class ConfigManager extends BaseConfigManager {
     private final MappedConfigLoader<Settings> settingsConfigLoader;
     private final ConfigLoader placeholdersConfigLoader;
     private final MappedConfigLoader<Lang> langConfigLoader;
+    private final MenuFileCache menuFileCache;
+    private final MenuBinaryCache menuBinaryCache;
 
-    public ConfigManager(Path rootDataFolder) {
+    public ConfigManager(Path rootDataFolder, String pluginVersion) {
         super(rootDataFolder);
 
         settingsConfigLoader = getMappedConfigLoader("config.yml", Settings.class);
         placeholdersConfigLoader = getConfigLoader("custom-placeholders.yml");
         langConfigLoader = getMappedConfigLoader("lang.yml", Lang.class);
+        menuFileCache = new MenuFileCache();
+        menuBinaryCache = new MenuBinaryCache(rootDataFolder.resolve(".menu-cache"), pluginVersion);
     }
 
     public void tryLoadSettings(ErrorCollector errorCollector) {
@@ -99,33 +118,230 @@ public class ConfigManager extends BaseConfigManager {
         errorCollector.add(e, Errors.Config.initException(file));
     }
 
-    public List<LoadedMenu> tryLoadMenus(ErrorCollector errorCollector) {
-        List<LoadedMenu> loadedMenus = new ArrayList<>();
+    public List<LoadedMenu> tryLoadMenus(PrintableErrorCollector errorCollector) {
+        menuFileCache.checkDependencies(Arrays.asList(
+                settingsConfigLoader.getFile(),
+                langConfigLoader.getFile(),
+                placeholdersConfigLoader.getFile()),
+                getHooksState());
+
+        return loadMenus(tryReadMenuFiles(errorCollector), errorCollector);
+    }
+
+    /*
+     * Describes the hooked plugins used while parsing menus, for example PlaceholderAPI placeholders are only detected if it's
+     * enabled. Returns null with ItemsAdder, because it can reload its items and font images without any visible change.
+     */
+    private @Nullable String getHooksState() {
+        if (ItemsAdderHook.INSTANCE.isEnabled()) {
+            return null;
+        }
+
+        return getHookState(PlaceholderAPIHook.INSTANCE, "PlaceholderAPI") + ";" + getHookState(VaultEconomyHook.INSTANCE, "Vault");
+    }
+
+    private String getHookState(PluginHook hook, String pluginName) {
+        Plugin plugin = Bukkit.getPluginManager().getPlugin(pluginName);
+        String hookState = pluginName + ":" + hook.isEnabled();
+        if (plugin != null) {
+            // The identity changes if the plugin is loaded again
+            hookState += ":" + plugin.isEnabled() + ":" + plugin.getDescription().getVersion() + ":" + System.identityHashCode(plugin);
+        }
+        return hookState;
+    }
+
+    /*
+     * Reads the menu files changed since the previous load, without parsing the icons and the settings that depend on other
+     * plugins, and without checking if the other files changed. It can be invoked outside the main thread: the menus must then
+     * be created on the main thread with loadMenus().
+     */
+    public ReadMenuFiles tryReadMenuFiles(PrintableErrorCollector errorCollector) {
         List<Path> menuFiles;
 
         try {
             menuFiles = getMenuFiles();
         } catch (IOException e) {
             errorCollector.add(e, Errors.Config.menuListIOException(getMenusFolder()));
-            return Collections.emptyList();
+            return new ReadMenuFiles(Collections.emptyList(), Collections.emptyList());
         }
 
+        // Sort to report errors in the same order on each load
+        menuFiles.sort(Comparator.naturalOrder());
+
+        List<MenuFileLoad> menuFileLoads = new ArrayList<>();
+        List<MenuFileLoad> changedMenuFileLoads = new ArrayList<>();
+
         for (Path menuFile : menuFiles) {
-            ConfigLoader menuConfigLoader = new ConfigLoader(rootDataFolder, menuFile);
+            // Read the fingerprint before parsing, so that changes made in the meantime are detected on the next load
+            FileFingerprint fingerprint = menuFileCache.tryReadFingerprint(menuFile);
+            MenuFileLoad menuFileLoad = new MenuFileLoad(menuFile, fingerprint);
+
+            CachedMenuFile cachedMenuFile = menuFileCache.getUnchanged(menuFile, fingerprint);
+            if (cachedMenuFile != null) {
+                menuFileLoad.loadedMenu = cachedMenuFile.getLoadedMenu();
+                menuFileLoad.errors = cachedMenuFile.getErrors();
+            } else {
+                changedMenuFileLoads.add(menuFileLoad);
+            }
+            menuFileLoads.add(menuFileLoad);
+        }
+
+        readMenuFiles(changedMenuFileLoads);
+
+        List<FileFingerprint> usedFingerprints = new ArrayList<>();
+        for (MenuFileLoad menuFileLoad : menuFileLoads) {
+            if (menuFileLoad.fingerprint != null && Settings.get().binary_menu_cache) {
+                usedFingerprints.add(menuFileLoad.fingerprint);
+            }
+        }
+
+        // Also deletes all the entries when the cache is disabled
+        menuBinaryCache.retainOnly(usedFingerprints);
+
+        return new ReadMenuFiles(menuFiles, menuFileLoads);
+    }
+
+    /*
+     * Must be invoked on the main thread: parsing icons and titles may use the API of other plugins, such as ItemsAdder.
+     */
+    public List<LoadedMenu> loadMenus(ReadMenuFiles readMenuFiles, PrintableErrorCollector errorCollector) {
+        List<LoadedMenu> loadedMenus = new ArrayList<>();
+        boolean lazyLoading = Settings.get().lazy_menu_loading;
+
+        menuFileCache.retainOnly(readMenuFiles.menuFiles);
 
-            try {
-                FileConfig menuConfig = menuConfigLoader.load();
-                loadedMenus.add(MenuParser.loadMenu(menuConfig, errorCollector));
-            } catch (ConfigException e) {
-                logConfigInitException(errorCollector, menuConfigLoader.getFile(), e);
+        for (MenuFileLoad menuFileLoad : readMenuFiles.menuFileLoads) {
+            if (menuFileLoad.read) {
+                if (menuFileLoad.rawMenu != null) {
+                    menuFileLoad.loadedMenu = loadMenu(menuFileLoad.rawMenu, menuFileLoad.menuFile, lazyLoading, menuFileLoad.errors);
+                }
+                menuFileCache.put(menuFileLoad.menuFile, menuFileLoad.fingerprint, menuFileLoad.loadedMenu, menuFileLoad.errors);
+            }
+
+            errorCollector.addAll(menuFileLoad.errors);
+            if (menuFileLoad.loadedMenu != null) {
+                loadedMenus.add(menuFileLoad.loadedMenu);
             }
         }
 
         return loadedMenus;
     }
 
+    private LoadedMenu loadMenu(RawMenu rawMenu, Path menuFile, boolean lazyLoading, PrintableErrorCollector errorCollector) {
+        if (lazyLoading) {
+            return MenuParser.loadMenuLazily(rawMenu, menuFile, errorCollector);
+        } else {
+            return MenuParser.loadMenu(rawMenu, menuFile, errorCollector);
+        }
+    }
+
+    private void readMenuFiles(List<MenuFileLoad> menuFileLoads) {
+        int parallelism = Math.min(menuFileLoads.size(), Runtime.getRuntime().availableProcessors());
+
+        if (parallelism <= 1 || !Settings.get().parallel_menu_loading) {
+            menuFileLoads.forEach(this::readMenuFile);
+            return;
+        }
+
+        // Each file has its own error collector, results are merged afterwards in the original order
+        ForkJoinPool pool = new ForkJoinPool(parallelism, this::newMenuLoaderThread, null, false);
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for (MenuFileLoad menuFileLoad : menuFileLoads) {
+                tasks.add(pool.submit(() -> readMenuFile(menuFileLoad)));
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private ForkJoinWorkerThread newMenuLoaderThread(ForkJoinPool pool) {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("ChestCommands Menu Loader #" + thread.getPoolIndex());
+        thread.setContextClassLoader(ConfigManager.class.getClassLoader());
+        return thread;
+    }
+
+    private void readMenuFile(MenuFileLoad menuFileLoad) {
+        PrintableErrorCollector menuErrorCollector = new PrintableErrorCollector();
+        menuFileLoad.rawMenu = tryReadRawMenu(menuFileLoad.menuFile, menuFileLoad.fingerprint, menuErrorCollector);
+        menuFileLoad.errors = menuErrorCollector;
+        menuFileLoad.read = true;
+    }
+
+    private @Nullable RawMenu tryReadRawMenu(Path menuFile, @Nullable FileFingerprint fingerprint, ErrorCollector errorCollector) {
+        boolean useBinaryCache = fingerprint != null && Settings.get().binary_menu_cache;
+
+        if (useBinaryCache) {
+            RawMenu rawMenu = menuBinaryCache.tryRead(fingerprint);
+            if (rawMenu != null) {
+                return rawMenu;
+            }
+        }
+
+        ConfigLoader menuConfigLoader = new ConfigLoader(rootDataFolder, menuFile);
+
+        try {
+            FileConfig menuConfig = menuConfigLoader.load();
+            RawMenu rawMenu = MenuParser.readRawMenu(menuConfig, errorCollector);
+
+            // Values that couldn't be read are not stored, so that their errors are reported again on the next load
+            if (useBinaryCache && !errorCollector.hasErrors() && isUnchangedSince(menuFile, fingerprint)) {
+                menuBinaryCache.tryWrite(fingerprint, rawMenu);
+            }
+            return rawMenu;
+        } catch (ConfigException e) {
+            logConfigInitException(errorCollector, menuConfigLoader.getFile(), e);
+            return null;
+        }
+    }
+
+    /*
+     * Prevents storing the content of a file under the hash of its previous content, if it was modified while being read.
+     */
+    private boolean isUnchangedSince(Path file, FileFingerprint fingerprint) {
+        try {
+            return FileFingerprint.read(file, fingerprint).hasSameContent(fingerprint);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     private boolean isYamlFile(Path path) {
         return Files.isRegularFile(path) && path.getFileName().toString().toLowerCase().endsWith(".yml");
     }
 
+
+    public static class ReadMenuFiles {
+
+        private final List<Path> menuFiles;
+        private final List<MenuFileLoad> menuFileLoads;
+
+        private ReadMenuFiles(List<Path> menuFiles, List<MenuFileLoad> menuFileLoads) {
+            this.menuFiles = menuFiles;
+            this.menuFileLoads = menuFileLoads;
+        }
+
+    }
+
+
+    private static class MenuFileLoad {
+
+        private final Path menuFile;
+        private final @Nullable FileFingerprint fingerprint;
+        private boolean read;
+        private @Nullable RawMenu rawMenu;
+        private @Nullable LoadedMenu loadedMenu;
+        private PrintableErrorCollector errors;
+
+        private MenuFileLoad(Path menuFile, @Nullable FileFingerprint fingerprint) {
+            this.menuFile = menuFile;
+            this.fingerprint = fingerprint;
+        }
+
+    }
+
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.config;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/*
+ * Identifies the content of a file, to detect if it changed since it was last read.
+ */
+public class FileFingerprint {
+
+    private static final FileFingerprint MISSING_FILE = new FileFingerprint(-1, -1, new byte[0]);
+
+    private final long size;
+    private final long lastModified;
+    private final byte[] contentHash;
+
+    private FileFingerprint(long size, long lastModified, byte[] contentHash) {
+        this.size = size;
+        this.lastModified = lastModified;
+        this.contentHash = contentHash;
+    }
+
+    /*
+     * The content is hashed only if the size or the modification time differ from the previous fingerprint.
+     */
+    public static FileFingerprint read(Path file, @Nullable FileFingerprint previous) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return MISSING_FILE;
+        }
+
+        long size = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+
+        if (previous != null && previous.size == size && previous.lastModified == lastModified) {
+            return previous;
+        }
+
+        return new FileFingerprint(size, lastModified, hash(Files.readAllBytes(file)));
+    }
+
+    private static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // Every Java implementation must support SHA-256
+        }
+    }
+
+    public byte[] getContentHash() {
+        return contentHash.clone();
+    }
+
+    public boolean hasSameContent(@Nullable FileFingerprint other) {
+        return other != null && Arrays.equals(this.contentHash, other.contentHash);
+    }
+
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.config;
+
+import me.filoghost.chestcommands.parsing.icon.AttributeType;
+import me.filoghost.chestcommands.parsing.menu.RawMenu;
+import me.filoghost.chestcommands.parsing.menu.RawMenu.RawIcon;
+import me.filoghost.fcommons.config.ConfigPath;
+import me.filoghost.fcommons.logging.Log;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/*
+ * Stores the raw values of menu files in a compact binary format, to skip reading YAML on startup for files that didn't change.
+ * Entries are named after the content hash of the source file, so they never need to be invalidated: a changed file has a new name.
+ */
+public class MenuBinaryCache {
+
+    private static final int MAGIC_NUMBER = 0x43434D43;
+    private static final int FORMAT_VERSION = 2;
+    private static final String FILE_EXTENSION = ".bin";
+
+    private static final byte TYPE_STRING = 0;
+    private static final byte TYPE_INTEGER = 1;
+    private static final byte TYPE_SHORT = 2;
+    private static final byte TYPE_DOUBLE = 3;
+    private static final byte TYPE_BOOLEAN = 4;
+    private static final byte TYPE_STRING_LIST = 5;
+
+    private final Path cacheFolder;
+    private final String pluginVersion;
+
+    public MenuBinaryCache(Path cacheFolder, String pluginVersion) {
+        this.cacheFolder = cacheFolder;
+        this.pluginVersion = pluginVersion;
+    }
+
+    /*
+     * Returns null if the entry is missing, was written by another version, or is corrupt.
+     */
+    public @Nullable RawMenu tryRead(FileFingerprint fingerprint) {
+        Path cacheFile = getCacheFile(fingerprint);
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+
+        // Read the whole entry at once, so that lengths can be validated against the remaining bytes
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(cacheFile)))) {
+            if (input.readInt() != MAGIC_NUMBER || input.readInt() != FORMAT_VERSION || !pluginVersion.equals(readString(input))) {
+                tryDelete(cacheFile);
+                return null;
+            }
+            return readRawMenu(input);
+        } catch (IOException | RuntimeException e) {
+            // Corrupt or incompatible entry, the menu file is read again and the entry replaced
+            tryDelete(cacheFile);
+            return null;
+        }
+    }
+
+    public void tryWrite(FileFingerprint fingerprint, RawMenu rawMenu) {
+        Path cacheFile = getCacheFile(fingerprint);
+        if (Files.isRegularFile(cacheFile)) {
+            return;
+        }
+
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheFolder);
+            tempFile = Files.createTempFile(cacheFolder, "menu", ".tmp");
+
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                output.writeInt(MAGIC_NUMBER);
+                output.writeInt(FORMAT_VERSION);
+                writeString(output, pluginVersion);
+                writeRawMenu(output, rawMenu);
+            }
+
+            // Readers never see a partially written entry
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Log.warning("Couldn't write the menu cache file \"" + cacheFile.getFileName() + "\": " + e.getMessage());
+            if (tempFile != null) {
+                tryDelete(tempFile);
+            }
+        }
+    }
+
+    /*
+     * Deletes the entries that don't belong to any of the given fingerprints.
+     */
+    public void retainOnly(Collection<FileFingerprint> fingerprints) {
+        if (!Files.isDirectory(cacheFolder)) {
+            return;
+        }
+
+        Set<Path> usedCacheFiles = new HashSet<>();
+        for (FileFingerprint fingerprint : fingerprints) {
+            usedCacheFiles.add(getCacheFile(fingerprint));
+        }
+
+        try (DirectoryStream<Path> cacheFiles = Files.newDirectoryStream(cacheFolder)) {
+            for (Path cacheFile : cacheFiles) {
+                if (!usedCacheFiles.contains(cacheFile)) {
+                    tryDelete(cacheFile);
+                }
+            }
+        } catch (IOException e) {
+            Log.warning("Couldn't clean up the menu cache folder: " + e.getMessage());
+        }
+    }
+
+    private Path getCacheFile(FileFingerprint fingerprint) {
+        StringBuilder fileName = new StringBuilder();
+        for (byte hashByte : fingerprint.getContentHash()) {
+            fileName.append(Character.forDigit((hashByte >> 4) & 0xF, 16));
+            fileName.append(Character.forDigit(hashByte & 0xF, 16));
+        }
+        fileName.append(FILE_EXTENSION);
+        return cacheFolder.resolve(fileName.toString());
+    }
+
+    private void tryDelete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Ignore, it will be replaced or deleted on the next load
+        }
+    }
+
+    private void writeRawMenu(DataOutputStream output, RawMenu rawMenu) throws IOException {
+        writeString(output, rawMenu.getName());
+        writeNullableInt(output, rawMenu.getRows());
+        output.writeBoolean(rawMenu.isAutoReopen());
+        writeStringList(output, rawMenu.getCommands());
+        writeStringList(output, rawMenu.getOpenActions());
+        writeString(output, rawMenu.getOpenItemMaterial());
+        output.writeBoolean(rawMenu.isOpenItemLeftClick());
+        output.writeBoolean(rawMenu.isOpenItemRightClick());
+        writeNullableDouble(output, rawMenu.getAutoRefresh());
+        writeNullableDouble(output, rawMenu.getAutoClose());
+        writeNullableInt(output, rawMenu.getAntiClickSpamBurst());
+        writeNullableInt(output, rawMenu.getAntiClickSpamDelay());
+
+        output.writeInt(rawMenu.getIcons().size());
+        for (RawIcon rawIcon : rawMenu.getIcons()) {
+            writeString(output, rawIcon.getConfigPath().toString());
+            output.writeInt(rawIcon.getAttributeValues().size());
+            for (Entry<AttributeType, Object> entry : rawIcon.getAttributeValues().entrySet()) {
+                writeString(output, entry.getKey().name());
+                writeValue(output, entry.getValue());
+            }
+        }
+    }
+
+    private RawMenu readRawMenu(DataInputStream input) throws IOException {
+        RawMenu rawMenu = new RawMenu();
+
+        rawMenu.setName(readString(input));
+        rawMenu.setRows(readNullableInt(input));
+        rawMenu.setAutoReopen(input.readBoolean());
+        rawMenu.setCommands(readStringList(input));
+        rawMenu.setOpenActions(readStringList(input));
+        rawMenu.setOpenItemMaterial(readString(input));
+        rawMenu.setOpenItemLeftClick(input.readBoolean());
+        rawMenu.setOpenItemRightClick(input.readBoolean());
+        rawMenu.setAutoRefresh(readNullableDouble(input));
+        rawMenu.setAutoClose(readNullableDouble(input));
+        rawMenu.setAntiClickSpamBurst(readNullableInt(input));
+        rawMenu.setAntiClickSpamDelay(readNullableInt(input));
+
+        int iconsCount = input.readInt();
+        for (int i = 0; i < iconsCount; i++) {
+            ConfigPath configPath = ConfigPath.literal(readRequiredString(input));
+            int attributesCount = input.readInt();
+            Map<AttributeType, Object> attributeValues = new LinkedHashMap<>();
+            for (int j = 0; j < attributesCount; j++) {
+                AttributeType attributeType = AttributeType.valueOf(readRequiredString(input));
+                attributeValues.put(attributeType, readValue(input));
+            }
+            // Only menus without errors are stored, there are no invalid attributes
+            rawMenu.addIcon(new RawIcon(configPath, attributeValues, Collections.emptySet()));
+        }
+
+        return rawMenu;
+    }
+
+    private void writeValue(DataOutputStream output, Object value) throws IOException {
+        if (value instanceof String) {
+            output.writeByte(TYPE_STRING);
+            writeString(output, (String) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(TYPE_INTEGER);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Short) {
+            output.writeByte(TYPE_SHORT);
+            output.writeShort((Short) value);
+        } else if (value instanceof Double) {
+            output.writeByte(TYPE_DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte(TYPE_BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (value instanceof List) {
+            output.writeByte(TYPE_STRING_LIST);
+            List<String> stringList = new ArrayList<>();
+            for (Object element : (List<?>) value) {
+                stringList.add((String) element);
+            }
+            writeStringList(output, stringList);
+        } else {
+            throw new IOException("unsupported value type: " + (value != null ? value.getClass().getName() : "null"));
+        }
+    }
+
+    private Object readValue(DataInputStream input) throws IOException {
+        byte type = input.readByte();
+        switch (type) {
+            case TYPE_STRING:
+                return readRequiredString(input);
+            case TYPE_INTEGER:
+                return input.readInt();
+            case TYPE_SHORT:
+                return input.readShort();
+            case TYPE_DOUBLE:
+                return input.readDouble();
+            case TYPE_BOOLEAN:
+                return input.readBoolean();
+            case TYPE_STRING_LIST:
+                List<String> stringList = readStringList(input);
+                if (stringList == null) {
+                    throw new IOException("missing list value");
+                }
+                return stringList;
+            default:
+                throw new IOException("unknown value type: " + type);
+        }
+    }
+
+    private void writeString(DataOutputStream output, @Nullable String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+
+        // Not using writeUTF(), which is limited to 64KB
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private @Nullable String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > input.available()) {
+            throw new IOException("invalid string length: " + length);
+        }
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private String readRequiredString(DataInputStream input) throws IOException {
+        String value = readString(input);
+        if (value == null) {
+            throw new IOException("missing string value");
+        }
+        return value;
+    }
+
+    private void writeStringList(DataOutputStream output, @Nullable List<String> values) throws IOException {
+        if (values == null) {
+            output.writeInt(-1);
+            return;
+        }
+
+        output.writeInt(values.size());
+        for (String value : values) {
+            writeString(output, value);
+        }
+    }
+
+    private @Nullable List<String> readStringList(DataInputStream input) throws IOException {
+        int size = input.readInt();
+        if (size == -1) {
+            return null;
+        }
+        if (size < 0 || size > input.available() / Integer.BYTES) {
+            throw new IOException("invalid list size: " + size);
+        }
+
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            values.add(readString(input));
+        }
+        return values;
+    }
+
+    private void writeNullableInt(DataOutputStream output, @Nullable Integer value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeInt(value);
+        }
+    }
+
+    private @Nullable Integer readNullableInt(DataInputStream input) throws IOException {
+        if (input.readBoolean()) {
+            return input.readInt();
+        } else {
+            return null;
+        }
+    }
+
+    private void writeNullableDouble(DataOutputStream output, @Nullable Double value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeDouble(value);
+        }
+    }
+
+    private @Nullable Double readNullableDouble(DataInputStream input) throws IOException {
+        if (input.readBoolean()) {
+            return input.readDouble();
+        } else {
+            return null;
+        }
+    }
+
+}
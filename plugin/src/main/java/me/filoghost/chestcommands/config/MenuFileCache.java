@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.config;
+
+import me.filoghost.chestcommands.logging.PrintableErrorCollector;
+import me.filoghost.chestcommands.parsing.menu.LoadedMenu;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/*
+ * Keeps the menus loaded from each file, so that on reload only the files changed since the previous load are parsed
+ * again. All the menus are parsed again when a file used while parsing them changes (settings, lang or placeholders), or
+ * when the state of a hooked plugin changes.
+ */
+public class MenuFileCache {
+
+    private final Map<Path, FileFingerprint> dependencyFingerprints;
+    private final Map<Path, CachedMenuFile> cachedMenuFiles;
+    private @Nullable String hooksState;
+
+    public MenuFileCache() {
+        this.dependencyFingerprints = new HashMap<>();
+        this.cachedMenuFiles = new HashMap<>();
+    }
+
+    /*
+     * The hooks state describes the hooked plugins, menus parsed with a different state are discarded.
+     * If it's null, the state can't be compared and all the menus are parsed again.
+     */
+    public void checkDependencies(Collection<Path> dependencyFiles, @Nullable String hooksState) {
+        boolean changed = hooksState == null || !hooksState.equals(this.hooksState);
+        this.hooksState = hooksState;
+
+        for (Path dependencyFile : dependencyFiles) {
+            FileFingerprint previousFingerprint = dependencyFingerprints.get(dependencyFile);
+            FileFingerprint fingerprint = tryReadFingerprint(dependencyFile, previousFingerprint);
+
+            if (fingerprint == null || !fingerprint.hasSameContent(previousFingerprint)) {
+                changed = true;
+            }
+            if (fingerprint != null) {
+                dependencyFingerprints.put(dependencyFile, fingerprint);
+            } else {
+                dependencyFingerprints.remove(dependencyFile);
+            }
+        }
+
+        if (changed) {
+            cachedMenuFiles.clear();
+        }
+    }
+
+    public @Nullable FileFingerprint tryReadFingerprint(Path menuFile) {
+        CachedMenuFile cachedMenuFile = cachedMenuFiles.get(menuFile);
+        return tryReadFingerprint(menuFile, cachedMenuFile != null ? cachedMenuFile.fingerprint : null);
+    }
+
+    private @Nullable FileFingerprint tryReadFingerprint(Path file, @Nullable FileFingerprint previousFingerprint) {
+        try {
+            return FileFingerprint.read(file, previousFingerprint);
+        } catch (IOException e) {
+            return null; // The file will be read again and the error reported
+        }
+    }
+
+    /*
+     * Returns the previous result of loading the file, if its content didn't change.
+     */
+    public @Nullable CachedMenuFile getUnchanged(Path menuFile, @Nullable FileFingerprint fingerprint) {
+        CachedMenuFile cachedMenuFile = cachedMenuFiles.get(menuFile);
+        if (cachedMenuFile != null && fingerprint != null && fingerprint.hasSameContent(cachedMenuFile.fingerprint)) {
+            return cachedMenuFile;
+        } else {
+            return null;
+        }
+    }
+
+    public void put(Path menuFile, @Nullable FileFingerprint fingerprint, @Nullable LoadedMenu loadedMenu, PrintableErrorCollector errors) {
+        if (fingerprint != null) {
+            cachedMenuFiles.put(menuFile, new CachedMenuFile(fingerprint, loadedMenu, errors));
+        } else {
+            cachedMenuFiles.remove(menuFile);
+        }
+    }
+
+    public void retainOnly(Collection<Path> menuFiles) {
+        cachedMenuFiles.keySet().retainAll(new HashSet<>(menuFiles));
+    }
+
+
+    public static class CachedMenuFile {
+
+        private final FileFingerprint fingerprint;
+        private final @Nullable LoadedMenu loadedMenu;
+        private final PrintableErrorCollector errors;
+
+        private CachedMenuFile(FileFingerprint fingerprint, @Nullable LoadedMenu loadedMenu, PrintableErrorCollector errors) {
+            this.fingerprint = fingerprint;
+            this.loadedMenu = loadedMenu;
+            this.errors = errors;
+        }
+
+        public @Nullable LoadedMenu getLoadedMenu() {
+            return loadedMenu;
+        }
+
+        public PrintableErrorCollector getErrors() {
+            return errors;
+        }
+
+    }
+
+}
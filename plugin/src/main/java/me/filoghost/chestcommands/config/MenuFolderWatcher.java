@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.config;
+
+import me.filoghost.fcommons.logging.Log;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/*
+ * Watches the menus folder and its subfolders on a background thread. The listener is invoked on the same thread once
+ * files stop changing for the given delay, so that a burst of changes (for example while copying many files) only
+ * triggers it once.
+ */
+public class MenuFolderWatcher {
+
+    private final Path menusFolder;
+    private final long delayMillis;
+    private final Runnable changeListener;
+
+    private WatchService watchService;
+    private Thread thread;
+
+    public MenuFolderWatcher(Path menusFolder, long delayMillis, Runnable changeListener) {
+        this.menusFolder = menusFolder;
+        this.delayMillis = delayMillis;
+        this.changeListener = changeListener;
+    }
+
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        try {
+            registerRecursively(menusFolder);
+        } catch (IOException e) {
+            watchService.close();
+            throw e;
+        }
+
+        thread = new Thread(this::run, "ChestCommands Menu Watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        try {
+            watchService.close(); // Makes the thread exit
+        } catch (IOException e) {
+            Log.warning("Couldn't close the menus folder watcher: " + e.getMessage());
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                boolean changed = handleEvents(watchService.take());
+
+                // Wait until no more events arrive for the delay
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+                long remainingNanos;
+                while ((remainingNanos = deadline - System.nanoTime()) > 0) {
+                    WatchKey watchKey = watchService.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (watchKey == null) {
+                        break;
+                    }
+                    if (handleEvents(watchKey)) {
+                        changed = true;
+                        deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+                    }
+                }
+
+                if (changed) {
+                    notifyChange();
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Stopped
+        }
+    }
+
+    private void notifyChange() {
+        try {
+            changeListener.run();
+        } catch (Throwable t) {
+            Log.severe("Error while reloading changed menus", t);
+        }
+    }
+
+    private boolean handleEvents(WatchKey watchKey) {
+        boolean changed = false;
+        Path folder = (Path) watchKey.watchable();
+
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed = true; // Some events were lost
+                continue;
+            }
+
+            Path file = folder.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(file)) {
+                try {
+                    registerRecursively(file);
+                } catch (IOException e) {
+                    Log.warning("Couldn't watch the new folder " + file + ": " + e.getMessage());
+                }
+                changed = true;
+            } else if (file.getFileName().toString().toLowerCase().endsWith(".yml") || Files.isDirectory(file)) {
+                changed = true;
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                changed = true; // May have been a folder containing menus
+            }
+        }
+
+        watchKey.reset();
+        return changed;
+    }
+
+    private void registerRecursively(Path folder) throws IOException {
+        List<Path> folders;
+        try (Stream<Path> paths = Files.walk(folder, FileVisitOption.FOLLOW_LINKS)) {
+            folders = paths.filter(Files::isDirectory).collect(Collectors.toList());
+        }
+
+        for (Path subFolder : folders) {
+            subFolder.register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        }
+    }
+
+}
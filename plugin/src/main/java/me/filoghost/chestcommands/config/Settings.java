@@ -18,6 +18,17 @@ public class Settings implements MappedConfig {
     public String default_color__lore = "&7";
     public int anti_click_spam_delay = 200;
     public boolean update_notifications = true;
+    public boolean parallel_menu_loading = true;
+    public boolean binary_menu_cache = true;
+    public boolean lazy_menu_loading = false;
+    public boolean auto_reload_menus__enabled = false;
+    public int auto_reload_menus__delay_millis = 1000;
+    public boolean auto_refresh__spread_views = true;
+    public int auto_refresh__max_slots_per_tick = 0;
+    public int async_placeholders__worker_threads = 2;
+    public int skull_owner_cache__max_size = 500;
+    public boolean skull_owner_cache__add_on_join = true;
+    public int click_queue_max_size = 1000;
     
     private static Settings instance;
 
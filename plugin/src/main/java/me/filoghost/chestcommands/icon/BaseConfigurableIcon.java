@@ -8,6 +8,7 @@ package me.filoghost.chestcommands.icon;
 import me.filoghost.chestcommands.api.Icon;
 import me.filoghost.chestcommands.placeholder.PlaceholderString;
 import me.filoghost.chestcommands.placeholder.PlaceholderStringList;
+import me.filoghost.chestcommands.util.nbt.NBTCompound;
 import me.filoghost.chestcommands.util.nbt.parser.MojangsonParseException;
 import me.filoghost.chestcommands.util.nbt.parser.MojangsonParser;
 import me.filoghost.fcommons.Preconditions;
@@ -34,6 +35,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
 
 public abstract class BaseConfigurableIcon implements Icon {
 
@@ -45,6 +48,7 @@ public abstract class BaseConfigurableIcon implements Icon {
     private int customModelData;
 
     private String nbtData;
+    private NBTCompound parsedNBTData;
     private PlaceholderString name;
     private PlaceholderStringList lore;
     private Map<Enchantment, Integer> enchantments;
@@ -54,11 +58,14 @@ public abstract class BaseConfigurableIcon implements Icon {
     private List<Pattern> bannerPatterns;
     private boolean placeholdersEnabled;
 
+    private ItemStack prototype; // Rendered attributes which are the same for all viewers
     private ItemStack cachedRendering; // Cache the rendered item when possible and if state hasn't changed
+    private final Map<Player, ViewerRendering> viewerRenderings; // Used instead if placeholders must be rendered for each viewer
 
     public BaseConfigurableIcon(Material material) {
         this.material = material;
         this.amount = 1;
+        this.viewerRenderings = new WeakHashMap<>();
     }
 
     protected boolean shouldCacheRendering() {
@@ -69,6 +76,12 @@ public abstract class BaseConfigurableIcon implements Icon {
         }
     }
 
+    private void invalidateRendering() {
+        prototype = null;
+        cachedRendering = null;
+        viewerRenderings.clear();
+    }
+
     private boolean hasDynamicPlaceholders() {
         return (name != null && name.hasDynamicPlaceholders())
                 || (lore != null && lore.hasDynamicPlaceholders())
@@ -77,7 +90,7 @@ public abstract class BaseConfigurableIcon implements Icon {
 
     public void setMaterial(@NotNull Material material) {
         this.material = material;
-        cachedRendering = null;
+        invalidateRendering();
     }
 
     public @NotNull Material getMaterial() {
@@ -87,7 +100,7 @@ public abstract class BaseConfigurableIcon implements Icon {
     public void setAmount(int amount) {
         Preconditions.checkArgument(amount > 0, "amount must be greater than 0");
         this.amount = Math.min(amount, 127);
-        cachedRendering = null;
+        invalidateRendering();
     }
 
     public int getAmount() {
@@ -97,7 +110,7 @@ public abstract class BaseConfigurableIcon implements Icon {
     public void setDurability(short durability) {
         Preconditions.checkArgument(durability >= 0, "durability must be 0 or greater");
         this.durability = durability;
-        cachedRendering = null;
+        invalidateRendering();
     }
 
     public short getDurability() {
@@ -108,7 +121,7 @@ public abstract class BaseConfigurableIcon implements Icon {
     {
         Preconditions.checkArgument(customModelData >= 0, "CUSTOM-MODEL-DATA must be 0 or greater");
         this.customModelData = customModelData;
-        cachedRendering = null;
+        invalidateRendering();
     }
 
     public int getCustomModelData()
@@ -117,15 +130,25 @@ public abstract class BaseConfigurableIcon implements Icon {
     }
 
     public void setNBTData(@Nullable String nbtData) {
+        NBTCompound parsedNBTData = null;
         if (nbtData != null) {
             try {
-                MojangsonParser.parse(nbtData);
+                parsedNBTData = MojangsonParser.parse(nbtData);
             } catch (MojangsonParseException e) {
                 throw new IllegalArgumentException("invalid nbtData", e);
             }
         }
+        setNBTData(nbtData, parsedNBTData);
+    }
+
+    /*
+     * Sets NBT data already parsed, to avoid parsing it again.
+     */
+    public void setNBTData(@Nullable String nbtData, @Nullable NBTCompound parsedNBTData) {
+        Preconditions.checkArgument((nbtData == null) == (parsedNBTData == null), "nbtData and parsedNBTData must be both null or not null");
         this.nbtData = nbtData;
-        cachedRendering = null;
+        this.parsedNBTData = parsedNBTData;
+        invalidateRendering();
     }
 
     public @Nullable String getNBTData() {
@@ -134,7 +157,7 @@ public abstract class BaseConfigurableIcon implements Icon {
 
     public void setName(@Nullable String name) {
         this.name = PlaceholderString.of(name);
-        cachedRendering = null;
+        invalidateRendering();
     }
 
     public @Nullable String getName() {
@@ -157,7 +180,7 @@ public abstract class BaseConfigurableIcon implements Icon {
         } else {
             this.lore = null;
         }
-        cachedRendering = null;
+        invalidateRendering();
     }
 
     public @Nullable List<String> getLore() {
@@ -170,7 +193,7 @@ public abstract class BaseConfigurableIcon implements Icon {
 
     public void setEnchantments(@Nullable Map<Enchantment, Integer> enchantments) {
         this.enchantments = CollectionUtils.newHashMap(enchantments);
-        cachedRendering = null;
+        invalidateRendering();
     }
 
     public @Nullable Map<Enchantment, Integer> getEnchantments() {
@@ -186,7 +209,7 @@ public abstract class BaseConfigurableIcon implements Icon {
             enchantments = new HashMap<>();
         }
         enchantments.put(enchantment, level);
-        cachedRendering = null;
+        invalidateRendering();
     }
 
     public void removeEnchantment(@NotNull Enchantment enchantment) {
@@ -194,7 +217,7 @@ public abstract class BaseConfigurableIcon implements Icon {
             return;
         }
         enchantments.remove(enchantment);
-        cachedRendering = null;
+        invalidateRendering();
     }
 
     public @Nullable Color getLeatherColor() {
@@ -203,7 +226,7 @@ public abstract class BaseConfigurableIcon implements Icon {
 
     public void setLeatherColor(@Nullable Color leatherColor) {
         this.leatherColor = leatherColor;
-        cachedRendering = null;
+        invalidateRendering();
     }
 
     public @Nullable String getSkullOwner() {
@@ -216,7 +239,7 @@ public abstract class BaseConfigurableIcon implements Icon {
 
     public void setSkullOwner(@Nullable String skullOwner) {
         this.skullOwner = PlaceholderString.of(skullOwner);
-        cachedRendering = null;
+        invalidateRendering();
     }
 
     public @Nullable DyeColor getBannerColor() {
@@ -225,7 +248,7 @@ public abstract class BaseConfigurableIcon implements Icon {
 
     public void setBannerColor(@Nullable DyeColor bannerColor) {
         this.bannerColor = bannerColor;
-        cachedRendering = null;
+        invalidateRendering();
     }
 
     public @Nullable List<Pattern> getBannerPatterns() {
@@ -238,7 +261,7 @@ public abstract class BaseConfigurableIcon implements Icon {
 
     public void setBannerPatterns(@Nullable List<Pattern> bannerPatterns) {
         this.bannerPatterns = CollectionUtils.newArrayList(bannerPatterns);
-        cachedRendering = null;
+        invalidateRendering();
     }
 
     public boolean isPlaceholdersEnabled() {
@@ -247,7 +270,7 @@ public abstract class BaseConfigurableIcon implements Icon {
 
     public void setPlaceholdersEnabled(boolean placeholdersEnabled) {
         this.placeholdersEnabled = placeholdersEnabled;
-        cachedRendering = null;
+        invalidateRendering();
     }
 
     public @Nullable String renderName(Player viewer) {
@@ -290,8 +313,18 @@ public abstract class BaseConfigurableIcon implements Icon {
         return isBlank;
     }
 
+    private @Nullable String renderSkullOwner(Player viewer) {
+        if (skullOwner == null) {
+            return null;
+        }
+        if (!placeholdersEnabled) {
+            return skullOwner.getOriginalValue();
+        }
+
+        return skullOwner.getValue(viewer);
+    }
+
     @Override
-    @SuppressWarnings("deprecation")
     public ItemStack render(@NotNull Player viewer) {
         if (shouldCacheRendering() && cachedRendering != null) {
             // Performance: return a cached item
@@ -301,10 +334,64 @@ public abstract class BaseConfigurableIcon implements Icon {
         if(isBlank)
             return null;
 
+        String renderedName = renderName(viewer);
+        List<String> renderedLore = renderLore(viewer);
+        String renderedSkullOwner = renderSkullOwner(viewer);
+
+        if (shouldCacheRendering()) {
+            cachedRendering = createItemStack(renderedName, renderedLore, renderedSkullOwner);
+            return cachedRendering;
+        }
+
+        // Performance: reuse the item rendered for the same viewer if placeholders values didn't change
+        ViewerRendering viewerRendering = viewerRenderings.get(viewer);
+        if (viewerRendering != null && viewerRendering.hasSameValues(renderedName, renderedLore, renderedSkullOwner)) {
+            return viewerRendering.itemStack;
+        }
+
+        ItemStack itemStack = createItemStack(renderedName, renderedLore, renderedSkullOwner);
+        viewerRenderings.put(viewer, new ViewerRendering(renderedName, renderedLore, renderedSkullOwner, itemStack));
+        return itemStack;
+    }
+
+    @SuppressWarnings("deprecation")
+    private ItemStack createItemStack(String renderedName, List<String> renderedLore, String renderedSkullOwner) {
+        // Only patch the attributes that may contain placeholders
+        ItemStack itemStack = getPrototype().clone();
+        ItemMeta itemMeta = itemStack.getItemMeta();
+
+        if (itemMeta != null) {
+            itemMeta.setDisplayName(renderedName);
+            itemMeta.setLore(renderedLore);
+
+            if (renderedSkullOwner != null && itemMeta instanceof SkullMeta) {
+                if (!SkullOwnerCache.trySetOwnerProfile((SkullMeta) itemMeta, renderedSkullOwner)) {
+                    ((SkullMeta) itemMeta).setOwner(renderedSkullOwner);
+                }
+            }
+
+            itemStack.setItemMeta(itemMeta);
+        }
+
+        return itemStack;
+    }
+
+    private ItemStack getPrototype() {
+        if (prototype == null) {
+            prototype = createPrototype();
+        }
+        return prototype;
+    }
+
+    /*
+     * Creates the item with all the attributes that don't contain placeholders.
+     */
+    @SuppressWarnings("deprecation")
+    private ItemStack createPrototype() {
         ItemStack itemStack = new ItemStack(material, amount, durability);
 
-        // First try to apply NBT data
-        if (nbtData != null) {
+        // First try to apply NBT data, only once for each prototype
+        if (parsedNBTData != null && !parsedNBTData.isEmpty()) {
             Bukkit.getUnsafe().modifyItemStack(itemStack, nbtData);
         }
 
@@ -312,9 +399,6 @@ public abstract class BaseConfigurableIcon implements Icon {
         ItemMeta itemMeta = itemStack.getItemMeta();
 
         if (itemMeta != null) {
-            itemMeta.setDisplayName(renderName(viewer));
-            itemMeta.setLore(renderLore(viewer));
-
             if(customModelData != 0) {
                 itemMeta.setCustomModelData(customModelData);
             }
@@ -323,11 +407,6 @@ public abstract class BaseConfigurableIcon implements Icon {
                 ((LeatherArmorMeta) itemMeta).setColor(leatherColor);
             }
 
-            if (skullOwner != null && itemMeta instanceof SkullMeta) {
-                String skullOwner = this.skullOwner.getValue(viewer);
-                ((SkullMeta) itemMeta).setOwner(skullOwner);
-            }
-
             if (itemMeta instanceof BannerMeta) {
                 BannerMeta bannerMeta = (BannerMeta) itemMeta;
                 if (bannerColor != null) {
@@ -350,11 +429,30 @@ public abstract class BaseConfigurableIcon implements Icon {
             enchantments.forEach(itemStack::addUnsafeEnchantment);
         }
 
+        return itemStack;
+    }
 
-        if (shouldCacheRendering()) {
-            cachedRendering = itemStack;
+
+    private static class ViewerRendering {
+
+        private final String name;
+        private final List<String> lore;
+        private final String skullOwner;
+        private final ItemStack itemStack;
+
+        private ViewerRendering(String name, List<String> lore, String skullOwner, ItemStack itemStack) {
+            this.name = name;
+            this.lore = lore;
+            this.skullOwner = skullOwner;
+            this.itemStack = itemStack;
+        }
+
+        private boolean hasSameValues(String name, List<String> lore, String skullOwner) {
+            return Objects.equals(this.name, name)
+                    && Objects.equals(this.lore, lore)
+                    && Objects.equals(this.skullOwner, skullOwner);
         }
 
-        return itemStack;
     }
+
 }
@@ -15,12 +15,12 @@ import me.filoghost.chestcommands.icon.requirement.RequiredMoney;
 import me.filoghost.chestcommands.icon.requirement.Requirement;
 import me.filoghost.chestcommands.icon.requirement.item.RequiredItem;
 import me.filoghost.chestcommands.icon.requirement.item.RequiredItems;
+import me.filoghost.chestcommands.placeholder.PlaceholderManager;
 import me.filoghost.fcommons.Preconditions;
 import me.filoghost.fcommons.collection.CollectionUtils;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.inventory.meta.ItemMeta;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -162,6 +162,7 @@ public class InternalConfigurableIcon extends BaseConfigurableIcon implements Re
         }
 
         // Update the menu after taking requirement costs and executing all actions
+        PlaceholderManager.invalidateCachedReplacements(player);
         menuView.refresh();
 
         // Force menu to stay open if actions open another menu
@@ -179,22 +180,8 @@ public class InternalConfigurableIcon extends BaseConfigurableIcon implements Re
             return currentRendering;
         }
 
-        if (!canViewIcon(viewer)) {
-            // Hide the current item
-            return null;
-        }
-
-        if (currentRendering == null) {
-            // Render item normally
-            return render(viewer);
-        } else {
-            // Internal icons are loaded and then never change, we can safely update only name and lore (for performance)
-            ItemMeta meta = currentRendering.getItemMeta();
-            meta.setDisplayName(renderName(viewer));
-            meta.setLore(renderLore(viewer));
-            currentRendering.setItemMeta(meta);
-            return currentRendering;
-        }
+        // Dynamic icons return the same item for the same viewer, unless placeholder values changed
+        return render(viewer);
     }
 
 }
@@ -11,6 +11,9 @@ import org.jetbrains.annotations.Nullable;
 
 public interface RefreshableIcon {
 
+    /*
+     * The current rendering must not be modified: return it as it is if nothing changed, or a new item otherwise.
+     */
     @Nullable ItemStack updateRendering(Player viewer, @Nullable ItemStack currentRendering);
 
 }
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.icon;
+
+import me.filoghost.fcommons.logging.Log;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.meta.SkullMeta;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/*
+ * Keeps the game profiles of the players used as skull owners, including their skin textures. The profile of an online
+ * player is complete, while a skull created only from a name makes the server look up the profile and the textures again.
+ * Profiles are captured while players are online and reused after they quit.
+ *
+ * The Bukkit API for profiles was only added in 1.18.1, older versions use the internal profile through reflection.
+ */
+public class SkullOwnerCache {
+
+    private static final int DEFAULT_MAX_SIZE = 500;
+
+    private static final ProfileAccessor profileAccessor = createProfileAccessor();
+
+    // Least recently used entries are removed first
+    private static final Map<String, Object> profilesByName = new LinkedHashMap<String, Object>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+            return size() > maxSize;
+        }
+    };
+    private static int maxSize = DEFAULT_MAX_SIZE;
+
+    public static void setMaxSize(int maxSize) {
+        SkullOwnerCache.maxSize = Math.max(0, maxSize);
+
+        Iterator<Object> iterator = profilesByName.values().iterator();
+        while (profilesByName.size() > SkullOwnerCache.maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /*
+     * Returns false if the profile of the owner is not known, in which case the owner should be set by name.
+     */
+    public static boolean trySetOwnerProfile(SkullMeta skullMeta, String ownerName) {
+        if (profileAccessor == null) {
+            return false;
+        }
+
+        String key = ownerName.toLowerCase(Locale.ROOT);
+        Object profile = profilesByName.get(key);
+        if (profile == null) {
+            // Don't look up players who are not online, it may require a web request
+            Player onlinePlayer = Bukkit.getPlayerExact(ownerName);
+            if (onlinePlayer == null) {
+                return false;
+            }
+            profile = tryCaptureProfile(onlinePlayer);
+            if (profile == null) {
+                return false;
+            }
+        }
+
+        try {
+            profileAccessor.setProfile(skullMeta, profile);
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            Log.warning("Couldn't set the profile of a skull owner: " + e);
+            return false;
+        }
+    }
+
+    public static void onPlayerJoin(Player player) {
+        if (profileAccessor != null) {
+            tryCaptureProfile(player);
+        }
+    }
+
+    private static @Nullable Object tryCaptureProfile(Player player) {
+        Object profile;
+        try {
+            profile = profileAccessor.getProfile(player);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            Log.warning("Couldn't read the profile of the player " + player.getName() + ": " + e);
+            return null;
+        }
+
+        if (profile != null) {
+            profilesByName.put(player.getName().toLowerCase(Locale.ROOT), profile);
+        }
+        return profile;
+    }
+
+    private static @Nullable ProfileAccessor createProfileAccessor() {
+        try {
+            return new BukkitProfileAccessor();
+        } catch (ReflectiveOperationException e) {
+            // Before 1.18.1
+        }
+
+        try {
+            return new CraftBukkitProfileAccessor();
+        } catch (ReflectiveOperationException e) {
+            Log.warning("Couldn't find how to read player profiles, skulls will be rendered from the owner name only.");
+            return null;
+        }
+    }
+
+
+    private interface ProfileAccessor {
+
+        Object getProfile(Player player) throws ReflectiveOperationException;
+
+        void setProfile(SkullMeta skullMeta, Object profile) throws ReflectiveOperationException;
+
+    }
+
+
+    /*
+     * Uses Player.getPlayerProfile() and SkullMeta.setOwnerProfile(PlayerProfile). The returned profile is a copy.
+     */
+    private static class BukkitProfileAccessor implements ProfileAccessor {
+
+        private final Method getPlayerProfileMethod;
+        private final Method setOwnerProfileMethod;
+
+        private BukkitProfileAccessor() throws ReflectiveOperationException {
+            Class<?> playerProfileClass = Class.forName("org.bukkit.profile.PlayerProfile");
+            getPlayerProfileMethod = Player.class.getMethod("getPlayerProfile");
+            setOwnerProfileMethod = SkullMeta.class.getMethod("setOwnerProfile", playerProfileClass);
+        }
+
+        @Override
+        public Object getProfile(Player player) throws ReflectiveOperationException {
+            return getPlayerProfileMethod.invoke(player);
+        }
+
+        @Override
+        public void setProfile(SkullMeta skullMeta, Object profile) throws ReflectiveOperationException {
+            setOwnerProfileMethod.invoke(skullMeta, profile);
+        }
+
+    }
+
+
+    /*
+     * Uses the GameProfile of CraftPlayer and of CraftMetaSkull. The profile of a player is not modified after login, so it
+     * can be shared by skulls.
+     */
+    private static class CraftBukkitProfileAccessor implements ProfileAccessor {
+
+        private final Method getProfileMethod;
+        private final @Nullable Method setProfileMethod;
+        private final Field profileField;
+
+        private CraftBukkitProfileAccessor() throws ReflectiveOperationException {
+            String craftBukkitPackage = Bukkit.getServer().getClass().getPackage().getName();
+            Class<?> craftPlayerClass = Class.forName(craftBukkitPackage + ".entity.CraftPlayer");
+            Class<?> craftMetaSkullClass = Class.forName(craftBukkitPackage + ".inventory.CraftMetaSkull");
+
+            getProfileMethod = craftPlayerClass.getMethod("getProfile");
+            profileField = craftMetaSkullClass.getDeclaredField("profile");
+            profileField.setAccessible(true);
+
+            // Since 1.14 it also serializes the profile, which is then used when saving the item
+            Method setProfileMethod;
+            try {
+                setProfileMethod = craftMetaSkullClass.getDeclaredMethod("setProfile", getProfileMethod.getReturnType());
+                setProfileMethod.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                setProfileMethod = null;
+            }
+            this.setProfileMethod = setProfileMethod;
+        }
+
+        @Override
+        public Object getProfile(Player player) throws ReflectiveOperationException {
+            return getProfileMethod.invoke(player);
+        }
+
+        @Override
+        public void setProfile(SkullMeta skullMeta, Object profile) throws ReflectiveOperationException {
+            if (setProfileMethod != null) {
+                setProfileMethod.invoke(skullMeta, profile);
+            } else {
+                profileField.set(skullMeta, profile);
+            }
+        }
+
+    }
+
+}
@@ -12,10 +12,16 @@ public interface Requirement {
     boolean hasCost(Player player);
     
     boolean takeCost(Player player);
+
+    /*
+     * Discards what hasCost() prepared for takeCost(), when takeCost() is not going to be called.
+     */
+    default void clearPreparedCost() {}
     
     static boolean hasAllCosts(Player player, Requirement... requirements) {
         for (Requirement requirement : requirements) {
             if (requirement != null && !requirement.hasCost(player)) {
+                clearAllPreparedCosts(requirements);
                 return false;
             }
         }
@@ -24,16 +30,29 @@ public interface Requirement {
     }
     
     static boolean takeAllCosts(Player player, Requirement... requirements) {
+        try {
+            for (Requirement requirement : requirements) {
+                if (requirement != null) {
+                    boolean success = requirement.takeCost(player);
+                    if (!success) {
+                        return false;
+                    }
+                }
+            }
+
+            return true;
+        } finally {
+            // The costs after a failed one are not taken
+            clearAllPreparedCosts(requirements);
+        }
+    }
+
+    static void clearAllPreparedCosts(Requirement... requirements) {
         for (Requirement requirement : requirements) {
             if (requirement != null) {
-                boolean success = requirement.takeCost(player);
-                if (!success) {
-                    return false;
-                }
+                requirement.clearPreparedCost();
             }
         }
-        
-        return true;
     }
 
 }
@@ -6,11 +6,13 @@
 package me.filoghost.chestcommands.icon.requirement.item;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import me.filoghost.fcommons.MaterialsHelper;
 import me.filoghost.fcommons.Preconditions;
+import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.PlayerInventory;
 
@@ -18,33 +20,36 @@ public class InventoryTakeHelper {
 
     private final PlayerInventory inventory;
     private final List<RemainingItem> remainingItems;
+    private final Map<Material, List<RemainingItem>> remainingItemsByMaterial;
 
     private boolean success;
 
     public InventoryTakeHelper(PlayerInventory inventory) {
         this.inventory = inventory;
         this.remainingItems = new ArrayList<>();
+        this.remainingItemsByMaterial = new EnumMap<>(Material.class);
 
         for (int slotIndex = 0; slotIndex < inventory.getSize(); slotIndex++) {
             ItemStack item = inventory.getItem(slotIndex);
             if (item != null && !MaterialsHelper.isAir(item.getType())) {
-                remainingItems.add(new RemainingItem(slotIndex, item));
+                RemainingItem remainingItem = new RemainingItem(slotIndex, item);
+                remainingItems.add(remainingItem);
+                remainingItemsByMaterial.computeIfAbsent(remainingItem.getMaterial(), material -> new ArrayList<>()).add(remainingItem);
             }
         }
     }
 
-    public boolean prepareTakeItems(List<RequiredItem> requiredItems) {
+    /*
+     * The required items must be sorted with the ones with a restrictive durability first, see RequiredItems.
+     */
+    public boolean prepareTakeItems(List<RequiredItem> sortedRequiredItems) {
         List<RequiredItem> missingItems = new ArrayList<>();
 
-        // Sort required items: check required items with a restrictive durability first
-        List<RequiredItem> sortedRequiredItems = requiredItems.stream()
-                .sorted(Comparator.comparing(RequiredItem::hasRestrictiveDurability).reversed())
-                .collect(Collectors.toList());
-
         for (RequiredItem requiredItem : sortedRequiredItems) {
             int remainingRequiredAmount = requiredItem.getAmount();
+            List<RemainingItem> sameMaterialItems = remainingItemsByMaterial.getOrDefault(requiredItem.getMaterial(), Collections.emptyList());
 
-            for (RemainingItem remainingItem : remainingItems) {
+            for (RemainingItem remainingItem : sameMaterialItems) {
                 if (remainingItem.getAmount() > 0 && requiredItem.isMatchingType(remainingItem)) {
                     int takenAmount = remainingItem.subtract(remainingRequiredAmount);
                     remainingRequiredAmount -= takenAmount;
@@ -64,6 +69,19 @@ public class InventoryTakeHelper {
         return success;
     }
 
+    /*
+     * Returns true if the slots that would be changed by applyTakeItems() still contain the same items as when this was created.
+     */
+    public boolean isInventoryUnchanged() {
+        for (RemainingItem remainingItem : remainingItems) {
+            if (remainingItem.getAmount() != remainingItem.getOriginalAmount()
+                    && !remainingItem.isSameItem(inventory.getItem(remainingItem.getSlotIndex()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void applyTakeItems() {
         Preconditions.checkState(success, "items take preparation was not run or successful");
 
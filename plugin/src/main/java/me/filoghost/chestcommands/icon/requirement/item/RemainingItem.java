@@ -13,13 +13,15 @@ public class RemainingItem {
     private final int slotIndex;
     private final Material material;
     private final short durability;
+    private final int originalAmount;
     private int amount;
 
     public RemainingItem(int slotIndex, ItemStack item) {
         this.slotIndex = slotIndex;
         this.material = item.getType();
         this.durability = item.getDurability();
-        this.amount = item.getAmount();
+        this.originalAmount = item.getAmount();
+        this.amount = originalAmount;
     }
 
     public int getSlotIndex() {
@@ -38,6 +40,14 @@ public class RemainingItem {
         return amount;
     }
 
+    public int getOriginalAmount() {
+        return originalAmount;
+    }
+
+    public boolean isSameItem(ItemStack item) {
+        return item != null && item.getType() == material && item.getDurability() == durability && item.getAmount() == originalAmount;
+    }
+
     public int subtract(int minusAmount) {
         int subtractedAmount = Math.min(minusAmount, this.amount);
 
@@ -11,20 +11,35 @@ import me.filoghost.chestcommands.icon.requirement.Requirement;
 import me.filoghost.chestcommands.util.Utils;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.UUID;
 
 public class RequiredItems implements Requirement {
 
     private final List<RequiredItem> items;
+    private final List<RequiredItem> sortedItems;
+
+    // Prepared by hasCost() and reused by takeCost() right after for the same player, cleared in any case afterwards
+    private UUID preparedPlayerUUID;
+    private InventoryTakeHelper preparedTakeHelper;
     
     public RequiredItems(List<RequiredItem> items) {
         this.items = ImmutableList.copyOf(items);
+
+        // Check required items with a restrictive durability first
+        List<RequiredItem> sortedItems = new ArrayList<>(items);
+        sortedItems.sort(Comparator.comparing(RequiredItem::hasRestrictiveDurability).reversed());
+        this.sortedItems = ImmutableList.copyOf(sortedItems);
     }
 
     @Override
     public boolean hasCost(Player player) {
+        clearPreparedCost();
+
         InventoryTakeHelper inventoryTakeHelper = new InventoryTakeHelper(player.getInventory());
-        boolean hasItems = inventoryTakeHelper.prepareTakeItems(items);
+        boolean hasItems = inventoryTakeHelper.prepareTakeItems(sortedItems);
 
         if (!hasItems) {
             for (RequiredItem item : items) {
@@ -33,6 +48,9 @@ public class RequiredItems implements Requirement {
                         .replace("{amount}", Integer.toString(item.getAmount()))
                         .replace("{durability}", item.hasRestrictiveDurability() ? Short.toString(item.getDurability()) : Lang.get().any));
             }
+        } else {
+            preparedPlayerUUID = player.getUniqueId();
+            preparedTakeHelper = inventoryTakeHelper;
         }
         
         return hasItems;
@@ -40,15 +58,27 @@ public class RequiredItems implements Requirement {
 
     @Override
     public boolean takeCost(Player player) {
-        InventoryTakeHelper inventoryTakeHelper = new InventoryTakeHelper(player.getInventory());
-        boolean hasItems = inventoryTakeHelper.prepareTakeItems(items);
+        InventoryTakeHelper inventoryTakeHelper;
 
-        if (!hasItems) {
-            return false;
+        if (player.getUniqueId().equals(preparedPlayerUUID) && preparedTakeHelper.isInventoryUnchanged()) {
+            inventoryTakeHelper = preparedTakeHelper;
+        } else {
+            inventoryTakeHelper = new InventoryTakeHelper(player.getInventory());
+            if (!inventoryTakeHelper.prepareTakeItems(sortedItems)) {
+                clearPreparedCost();
+                return false;
+            }
         }
-        
+
+        clearPreparedCost();
         inventoryTakeHelper.applyTakeItems();
         return true;
     }
+
+    @Override
+    public void clearPreparedCost() {
+        preparedPlayerUUID = null;
+        preparedTakeHelper = null;
+    }
     
 }
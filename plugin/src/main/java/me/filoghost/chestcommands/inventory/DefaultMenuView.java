@@ -9,38 +9,67 @@ import me.filoghost.chestcommands.api.Icon;
 import me.filoghost.chestcommands.api.MenuView;
 import me.filoghost.chestcommands.icon.RefreshableIcon;
 import me.filoghost.chestcommands.menu.BaseMenu;
+import me.filoghost.chestcommands.menu.MenuManager;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Objects;
+
 public class DefaultMenuView implements MenuView {
 
     private final BaseMenu menu;
     private final Player viewer;
     private final InventoryGrid bukkitInventory;
 
+    // Copy of the last item set in each slot, used to skip slots whose rendering didn't change
+    private final ItemStack[] renderedItems;
+    private boolean open;
+
     public DefaultMenuView(@NotNull BaseMenu menu, @NotNull Player viewer) {
         this.menu = menu;
         this.viewer = viewer;
         this.bukkitInventory = new InventoryGrid(new MenuInventoryHolder(this), menu.getRows(), menu.getTitle());
+        this.renderedItems = new ItemStack[bukkitInventory.getSize()];
         refresh();
     }
 
     @Override
     public void refresh() {
-        for (int i = 0; i < menu.getIcons().getSize(); i++) {
+        refreshChangedSlots();
+    }
+
+    /*
+     * Re-renders all the icons, but only updates the inventory slots whose item actually changed.
+     * Returns the number of updated slots.
+     */
+    public int refreshChangedSlots() {
+        int changedSlots = 0;
+
+        for (int i = 0; i < renderedItems.length; i++) {
             Icon icon = menu.getIcons().getByIndex(i);
+            ItemStack previousItemStack = renderedItems[i];
+            ItemStack newItemStack;
 
             if (icon == null || icon.isBlank()) {
-                bukkitInventory.setByIndex(i, null);
+                newItemStack = null;
             } else if (icon instanceof RefreshableIcon) {
-                ItemStack newItemStack = ((RefreshableIcon) icon).updateRendering(viewer, bukkitInventory.getByIndex(i));
-                bukkitInventory.setByIndex(i, newItemStack);
+                newItemStack = ((RefreshableIcon) icon).updateRendering(viewer, previousItemStack);
             } else {
-                bukkitInventory.setByIndex(i, icon.render(viewer));
+                newItemStack = icon.render(viewer);
+            }
+
+            if (newItemStack == previousItemStack || Objects.equals(newItemStack, previousItemStack)) {
+                continue;
             }
+
+            bukkitInventory.setByIndex(i, newItemStack);
+            renderedItems[i] = newItemStack != null ? newItemStack.clone() : null;
+            changedSlots++;
         }
+
+        return changedSlots;
     }
 
     @Override
@@ -52,6 +81,23 @@ public class DefaultMenuView implements MenuView {
 
     public void open() {
         viewer.openInventory(bukkitInventory.getInventory());
+
+        // The inventory is not displayed if another plugin cancels the open event
+        if (!open && MenuManager.getOpenMenuView(viewer.getOpenInventory().getTopInventory()) == this) {
+            open = true;
+            MenuManager.onMenuViewOpen(this);
+        }
+    }
+
+    public void onClose() {
+        if (open) {
+            open = false;
+            MenuManager.onMenuViewClose(this);
+        }
+    }
+
+    public boolean isOpen() {
+        return open;
     }
 
     public @Nullable Icon getIcon(int slot) {
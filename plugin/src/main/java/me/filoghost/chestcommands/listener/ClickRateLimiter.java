@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.listener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Token bucket rate limiter, implemented as a virtual scheduling algorithm: the state of each bucket is a single timestamp,
+ * the time at which the bucket would be full again. Each accepted click moves it forward by the refill delay, and a click
+ * is rejected if that would move it further than the burst size from the current time.
+ */
+public class ClickRateLimiter {
+
+    private final Map<UUID, AtomicLong> fullBucketTimes = new ConcurrentHashMap<>();
+
+    public boolean tryAcquire(UUID playerUUID, int burst, long refillDelayMillis) {
+        if (refillDelayMillis <= 0 || burst <= 0) {
+            return true;
+        }
+
+        long now = System.nanoTime();
+        long refillDelay = TimeUnit.MILLISECONDS.toNanos(refillDelayMillis);
+        long maxAdvance = refillDelay * burst;
+        AtomicLong fullBucketTime = fullBucketTimes.computeIfAbsent(playerUUID, uuid -> new AtomicLong(now));
+
+        while (true) {
+            long previous = fullBucketTime.get();
+            long start = previous - now > 0 ? previous : now; // Compared by difference, nanoTime() may overflow
+            long next = start + refillDelay;
+
+            if (next - now > maxAdvance) {
+                return false;
+            }
+            if (fullBucketTime.compareAndSet(previous, next)) {
+                return true;
+            }
+        }
+    }
+
+    public void remove(UUID playerUUID) {
+        fullBucketTimes.remove(playerUUID);
+    }
+
+}
@@ -13,6 +13,7 @@ import me.filoghost.chestcommands.inventory.DefaultMenuView;
 import me.filoghost.chestcommands.logging.Errors;
 import me.filoghost.chestcommands.menu.InternalMenu;
 import me.filoghost.chestcommands.menu.MenuManager;
+import me.filoghost.chestcommands.task.ClickQueue;
 import me.filoghost.fcommons.logging.Log;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -33,7 +34,7 @@ public class InventoryListener implements Listener {
 
     private static final Map<Player, Boolean> playerClosedMenuPressingIcon = new WeakHashMap<>();
 
-    private final Map<Player, Long> antiClickSpam = new WeakHashMap<>();
+    private static final ClickRateLimiter clickRateLimiter = new ClickRateLimiter();
 
     public static boolean canPlayerClose_AutoOpenMenu(Player player)
     {
@@ -48,6 +49,10 @@ public class InventoryListener implements Listener {
             playerClosedMenuPressingIcon.remove(player);
     }
 
+    public static void onPlayerQuit(Player player) {
+        clickRateLimiter.remove(player.getUniqueId());
+    }
+
     @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = false)
     public void onInteract(PlayerInteractEvent event) {
         if (event.hasItem() && event.getAction() != Action.PHYSICAL) {
@@ -81,20 +86,23 @@ public class InventoryListener implements Listener {
             return;
         }
 
-        Long cooldownUntil = antiClickSpam.get(clicker);
-        long now = System.currentTimeMillis();
-        int minDelay = Settings.get().anti_click_spam_delay;
-
-        if (minDelay > 0) {
-            if (cooldownUntil != null && cooldownUntil > now) {
-                return;
-            } else {
-                antiClickSpam.put(clicker, now + minDelay);
+        int burst = 1;
+        int refillDelay = Settings.get().anti_click_spam_delay;
+        if (menuView.getMenu() instanceof InternalMenu) {
+            InternalMenu menu = (InternalMenu) menuView.getMenu();
+            burst = menu.getAntiClickSpamBurst();
+            if (menu.getAntiClickSpamDelay() >= 0) {
+                refillDelay = menu.getAntiClickSpamDelay();
             }
         }
 
+        if (!clickRateLimiter.tryAcquire(clicker.getUniqueId(), burst, refillDelay)) {
+            menuView.getMenu().addRejectedClick();
+            return;
+        }
+
         // Only handle the click AFTER the event has finished
-        Bukkit.getScheduler().runTask(ChestCommands.getInstance(), () -> {
+        ClickQueue.add(() -> {
             try {
                 icon.onClick(menuView, clicker);
             } catch (Throwable t) {
@@ -112,6 +120,8 @@ public class InventoryListener implements Listener {
             return;
         }
 
+        menuView.onClose();
+
         if(!menuView.getMenu().isAutoReopen())
             return;
 
@@ -8,6 +8,7 @@ package me.filoghost.chestcommands.listener;
 import me.filoghost.chestcommands.ChestCommands;
 import me.filoghost.chestcommands.Permissions;
 import me.filoghost.chestcommands.config.Settings;
+import me.filoghost.chestcommands.icon.SkullOwnerCache;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -20,6 +21,10 @@ public class JoinListener implements Listener {
     public void onJoin(PlayerJoinEvent event) {
         Player player = event.getPlayer();
 
+        if (Settings.get().skull_owner_cache__add_on_join) {
+            SkullOwnerCache.onPlayerJoin(player);
+        }
+
         if (ChestCommands.getLastLoadErrors().hasErrors() && player.hasPermission(Permissions.SEE_ERRORS)) {
             player.sendMessage(
                     ChestCommands.CHAT_PREFIX + ChatColor.RED + "The plugin found " + ChestCommands.getLastLoadErrors().getErrorsCount()
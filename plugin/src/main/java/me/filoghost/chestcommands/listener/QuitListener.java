@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.listener;
+
+import me.filoghost.chestcommands.menu.MenuManager;
+import me.filoghost.chestcommands.placeholder.PlaceholderManager;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+public class QuitListener implements Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+
+        MenuManager.onPlayerQuit(player);
+        InventoryListener.onPlayerQuit(player);
+        PlaceholderManager.onPlayerQuit(player);
+    }
+
+}
@@ -23,6 +23,10 @@ import java.util.List;
 public class PrintableErrorCollector extends ErrorCollector {
 
 
+    public void addAll(PrintableErrorCollector other) {
+        errors.addAll(other.errors);
+    }
+
     @Override
     public void logToConsole() {
         StringBuilder output = new StringBuilder();
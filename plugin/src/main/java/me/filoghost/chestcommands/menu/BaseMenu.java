@@ -12,23 +12,30 @@ import me.filoghost.chestcommands.inventory.ArrayGrid;
 import me.filoghost.chestcommands.inventory.DefaultMenuView;
 import me.filoghost.chestcommands.inventory.Grid;
 import me.filoghost.fcommons.Preconditions;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 public abstract class BaseMenu implements Menu {
 
 
     private final String title;
     private final Grid<Icon> icons;
+    private final Set<DefaultMenuView> openViews;
     private boolean autoReopen;
+    private long rejectedClicks;
 
     public BaseMenu(@NotNull String title, int rows) {
         Preconditions.notNull(title, "title");
         Preconditions.checkArgument(rows > 0, "rows must be greater than 0");
         this.title = title;
         this.icons = new ArrayGrid<>(rows, 9);
+        this.openViews = new HashSet<>();
     }
 
     @Override
@@ -52,14 +59,37 @@ public abstract class BaseMenu implements Menu {
 
     @Override
     public void refreshOpenViews() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            DefaultMenuView menuView = MenuManager.getOpenMenuView(player);
-            if (menuView != null && menuView.getMenu() == this) {
-                menuView.refresh();
-            }
+        for (DefaultMenuView menuView : getOpenViews()) {
+            menuView.refresh();
         }
     }
 
+    void addOpenView(DefaultMenuView menuView) {
+        openViews.add(menuView);
+    }
+
+    void removeOpenView(DefaultMenuView menuView) {
+        openViews.remove(menuView);
+    }
+
+    /*
+     * Returns a copy, since views may be closed while iterating. Like the views themselves, must only be used from the main thread.
+     */
+    List<DefaultMenuView> getOpenViews() {
+        return new ArrayList<>(openViews);
+    }
+
+    /*
+     * Counts the clicks ignored because of the anti-click-spam limit.
+     */
+    public void addRejectedClick() {
+        rejectedClicks++;
+    }
+
+    public long getRejectedClicks() {
+        return rejectedClicks;
+    }
+
     public void setAutoReopen(boolean autoReopen)
     {
         this.autoReopen = autoReopen;
@@ -9,13 +9,16 @@ import com.google.common.collect.ImmutableList;
 import me.filoghost.chestcommands.ChestCommands;
 import me.filoghost.chestcommands.Permissions;
 import me.filoghost.chestcommands.action.Action;
+import me.filoghost.chestcommands.api.Icon;
 import me.filoghost.chestcommands.api.MenuView;
 import me.filoghost.chestcommands.config.Lang;
+import me.filoghost.chestcommands.inventory.Grid;
 import me.filoghost.fcommons.collection.CollectionUtils;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.nio.file.Path;
 import java.util.List;
@@ -28,6 +31,9 @@ public class InternalMenu extends BaseMenu {
     private ImmutableList<Action> openActions;
     private int refreshTicks;
     private int autoCloseTicks;
+    private int antiClickSpamBurst = 1;
+    private int antiClickSpamDelay = -1; // Negative to use the global delay
+    private @Nullable Runnable iconsLoader;
 
     public InternalMenu(@NotNull String title, int rows, @NotNull Path sourceFile) {
         super(title, rows);
@@ -65,8 +71,59 @@ public class InternalMenu extends BaseMenu {
         this.autoCloseTicks = autoCloseTicks;
     }
 
+    public int getAntiClickSpamBurst() {
+        return antiClickSpamBurst;
+    }
+
+    public void setAntiClickSpamBurst(int antiClickSpamBurst) {
+        this.antiClickSpamBurst = antiClickSpamBurst;
+    }
+
+    public int getAntiClickSpamDelay() {
+        return antiClickSpamDelay;
+    }
+
+    public void setAntiClickSpamDelay(int antiClickSpamDelay) {
+        this.antiClickSpamDelay = antiClickSpamDelay;
+    }
+
+    /*
+     * The icons will be set by the loader the first time they are needed.
+     */
+    public void setIconsLoader(@Nullable Runnable iconsLoader) {
+        this.iconsLoader = iconsLoader;
+    }
+
+    private void ensureIconsLoaded() {
+        if (iconsLoader != null) {
+            Runnable loader = iconsLoader;
+            iconsLoader = null; // Set before running, the loader itself sets the icons
+            loader.run();
+        }
+    }
+
+    @Override
+    public void setIcon(int row, int column, @Nullable Icon icon) {
+        ensureIconsLoaded();
+        super.setIcon(row, column, icon);
+    }
+
+    @Override
+    public @Nullable Icon getIcon(int row, int column) {
+        ensureIconsLoaded();
+        return super.getIcon(row, column);
+    }
+
+    @Override
+    public @NotNull Grid<Icon> getIcons() {
+        ensureIconsLoaded();
+        return super.getIcons();
+    }
+
     @Override
     public @NotNull MenuView open(@NotNull Player player) {
+        ensureIconsLoaded();
+
         if (openActions != null) {
             for (Action openAction : openActions) {
                 openAction.execute(player);
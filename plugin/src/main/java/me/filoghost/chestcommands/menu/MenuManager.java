@@ -5,72 +5,102 @@
  */
 package me.filoghost.chestcommands.menu;
 
+import me.filoghost.chestcommands.config.Settings;
 import me.filoghost.chestcommands.inventory.DefaultMenuView;
 import me.filoghost.chestcommands.inventory.MenuInventoryHolder;
 import me.filoghost.chestcommands.logging.Errors;
 import me.filoghost.chestcommands.parsing.menu.LoadedMenu;
 import me.filoghost.chestcommands.parsing.menu.MenuOpenItem;
+import me.filoghost.chestcommands.task.PeriodicViewSchedule;
 import me.filoghost.fcommons.collection.CaseInsensitiveHashMap;
 import me.filoghost.fcommons.collection.CaseInsensitiveMap;
 import me.filoghost.fcommons.collection.CaseInsensitiveString;
 import me.filoghost.fcommons.logging.ErrorCollector;
-import org.bukkit.Bukkit;
+import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.bukkit.event.block.Action;
 import org.bukkit.inventory.Inventory;
-import org.bukkit.inventory.InventoryView;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
 public class MenuManager {
 
-    private static final CaseInsensitiveMap<InternalMenu> menusByFile = new CaseInsensitiveHashMap<>();
-    private static final CaseInsensitiveMap<InternalMenu> menusByOpenCommand = new CaseInsensitiveHashMap<>();
-    private static final Map<MenuOpenItem, InternalMenu> menusByOpenItem = new HashMap<>();
+    private static final PeriodicViewSchedule refreshSchedule = new PeriodicViewSchedule();
+    private static final PeriodicViewSchedule autoCloseSchedule = new PeriodicViewSchedule();
 
-    public static void reset() {
-        menusByFile.clear();
-        menusByOpenCommand.clear();
-        menusByOpenItem.clear();
-    }
+    // Updated when views are opened and closed, to avoid inspecting the inventory holders of players
+    private static final Map<UUID, DefaultMenuView> openMenuViews = new HashMap<>();
+
+    // Replaced all together when menus are reloaded
+    private static CaseInsensitiveMap<InternalMenu> menusByFile = new CaseInsensitiveHashMap<>();
+    private static CaseInsensitiveMap<InternalMenu> menusByOpenCommand = new CaseInsensitiveHashMap<>();
+    private static Map<Material, Map<MenuOpenItem, InternalMenu>> menusByOpenItem = new EnumMap<>(Material.class);
 
     public static InternalMenu getMenuByFileName(String fileName) {
         return menusByFile.get(fileName);
     }
 
-    public static void registerMenu(LoadedMenu loadedMenu, ErrorCollector errorCollector) {
-        InternalMenu menu = loadedMenu.getMenu();
+    public static void setMenus(List<LoadedMenu> loadedMenus, ErrorCollector errorCollector) {
+        CaseInsensitiveMap<InternalMenu> newMenusByFile = new CaseInsensitiveHashMap<>();
+        CaseInsensitiveMap<InternalMenu> newMenusByOpenCommand = new CaseInsensitiveHashMap<>();
+        // Indexed by material, so that interacting with unrelated items costs a single lookup
+        Map<Material, Map<MenuOpenItem, InternalMenu>> newMenusByOpenItem = new EnumMap<>(Material.class);
 
-        String fileName = loadedMenu.getSourceFile().getFileName().toString();
-        InternalMenu sameNameMenu = menusByFile.get(fileName);
-        if (sameNameMenu != null) {
-            errorCollector.add(Errors.Menu.duplicateMenuName(sameNameMenu.getSourceFile(), loadedMenu.getSourceFile()));
-        }
-        menusByFile.put(fileName, menu);
-
-        if (loadedMenu.getOpenCommands() != null) {
-            for (String openCommand : loadedMenu.getOpenCommands()) {
-                if (!openCommand.isEmpty()) {
-                    InternalMenu sameCommandMenu = menusByOpenCommand.get(openCommand);
-                    if (sameCommandMenu != null) {
-                        errorCollector.add(Errors.Menu.duplicateMenuCommand(sameCommandMenu.getSourceFile(), loadedMenu.getSourceFile(), openCommand));
+        for (LoadedMenu loadedMenu : loadedMenus) {
+            InternalMenu menu = loadedMenu.getMenu();
+
+            String fileName = loadedMenu.getSourceFile().getFileName().toString();
+            InternalMenu sameNameMenu = newMenusByFile.get(fileName);
+            if (sameNameMenu != null) {
+                errorCollector.add(Errors.Menu.duplicateMenuName(sameNameMenu.getSourceFile(), loadedMenu.getSourceFile()));
+            }
+            newMenusByFile.put(fileName, menu);
+
+            if (loadedMenu.getOpenCommands() != null) {
+                for (String openCommand : loadedMenu.getOpenCommands()) {
+                    if (!openCommand.isEmpty()) {
+                        InternalMenu sameCommandMenu = newMenusByOpenCommand.get(openCommand);
+                        if (sameCommandMenu != null) {
+                            errorCollector.add(Errors.Menu.duplicateMenuCommand(sameCommandMenu.getSourceFile(), loadedMenu.getSourceFile(), openCommand));
+                        }
+                        newMenusByOpenCommand.put(openCommand, menu);
                     }
-                    menusByOpenCommand.put(openCommand, menu);
                 }
             }
-        }
 
-        if (loadedMenu.getOpenItem() != null) {
-            menusByOpenItem.put(loadedMenu.getOpenItem(), menu);
+            MenuOpenItem openItem = loadedMenu.getOpenItem();
+            if (openItem != null) {
+                newMenusByOpenItem.computeIfAbsent(openItem.getMaterial(), material -> new LinkedHashMap<>()).put(openItem, menu);
+            }
         }
+
+        menusByFile = newMenusByFile;
+        menusByOpenCommand = newMenusByOpenCommand;
+        menusByOpenItem = newMenusByOpenItem;
     }
 
     public static void openMenuByItem(Player player, ItemStack itemInHand, Action clickAction) {
-        menusByOpenItem.forEach((openItem, menu) -> {
+        Map<MenuOpenItem, InternalMenu> sameMaterialMenus = menusByOpenItem.get(itemInHand.getType());
+        if (sameMaterialMenus == null) {
+            return;
+        }
+
+        // Durability and click type are checked only for the few menus with the same material. They are not indexed on
+        // purpose: an open item without a restrictive durability matches any durability, and one that accepts both clicks
+        // matches either, so an index would need several lookups per interaction to save a few matches() calls.
+        sameMaterialMenus.forEach((openItem, menu) -> {
             if (openItem.matches(itemInHand, clickAction)) {
                 menu.openCheckingPermission(player);
             }
@@ -90,28 +120,71 @@ public class MenuManager {
     }
 
     public static void closeAllOpenMenuViews() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            DefaultMenuView openMenuView = getOpenMenuView(player);
-            if (openMenuView != null) {
+        // Copied because closing a view removes it
+        for (DefaultMenuView openMenuView : new ArrayList<>(openMenuViews.values())) {
+            openMenuView.close();
+        }
+    }
+
+    public static void closeReplacedMenuViews(List<LoadedMenu> loadedMenus) {
+        Set<InternalMenu> keptMenus = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (LoadedMenu loadedMenu : loadedMenus) {
+            keptMenus.add(loadedMenu.getMenu());
+        }
+
+        for (DefaultMenuView openMenuView : new ArrayList<>(openMenuViews.values())) {
+            if (openMenuView.getMenu() instanceof InternalMenu && !keptMenus.contains(openMenuView.getMenu())) {
                 openMenuView.close();
             }
         }
     }
 
-    public static @Nullable DefaultMenuView getOpenMenuView(Player player) {
-        InventoryView inventoryView = player.getOpenInventory();
-        if (inventoryView == null) {
-            return null;
+    public static void onMenuViewOpen(DefaultMenuView menuView) {
+        openMenuViews.put(menuView.getViewer().getUniqueId(), menuView);
+        menuView.getMenu().addOpenView(menuView);
+
+        if (menuView.getMenu() instanceof InternalMenu) {
+            InternalMenu menu = (InternalMenu) menuView.getMenu();
+            refreshSchedule.add(menuView, menu.getRefreshTicks(), Settings.get().auto_refresh__spread_views);
+            autoCloseSchedule.add(menuView, menu.getAutoCloseTicks(), false);
         }
+    }
 
-        DefaultMenuView menuView = getOpenMenuView(inventoryView.getTopInventory());
-        if (menuView == null) {
-            menuView = getOpenMenuView(inventoryView.getBottomInventory());
+    public static void onMenuViewClose(DefaultMenuView menuView) {
+        // Another view may have been registered in the meantime
+        openMenuViews.remove(menuView.getViewer().getUniqueId(), menuView);
+        menuView.getMenu().removeOpenView(menuView);
+
+        if (menuView.getMenu() instanceof InternalMenu) {
+            InternalMenu menu = (InternalMenu) menuView.getMenu();
+            refreshSchedule.remove(menuView, menu.getRefreshTicks());
+            autoCloseSchedule.remove(menuView, menu.getAutoCloseTicks());
         }
+    }
 
-        return menuView;
+    public static void onPlayerQuit(Player player) {
+        // In case the inventory close event was not fired
+        DefaultMenuView openMenuView = openMenuViews.get(player.getUniqueId());
+        if (openMenuView != null) {
+            openMenuView.onClose();
+        }
     }
 
+    public static PeriodicViewSchedule getRefreshSchedule() {
+        return refreshSchedule;
+    }
+
+    public static PeriodicViewSchedule getAutoCloseSchedule() {
+        return autoCloseSchedule;
+    }
+
+    public static @Nullable DefaultMenuView getOpenMenuView(Player player) {
+        return openMenuViews.get(player.getUniqueId());
+    }
+
+    public static Collection<DefaultMenuView> getOpenMenuViews() {
+        return Collections.unmodifiableCollection(openMenuViews.values());
+    }
 
     public static @Nullable DefaultMenuView getOpenMenuView(Inventory inventory) {
         MenuInventoryHolder inventoryHolder = getMenuInventoryHolder(inventory);
@@ -53,12 +53,17 @@ public enum AttributeType {
     }
 
     private final ConfigPath configKey;
+    private final ValueReader valueReader;
     private final AttributeParser attributeParser;
 
+    @SuppressWarnings("unchecked")
     <V> AttributeType(String configKey, ConfigType<V> configType, AttributeFactory<V, ?> attributeFactory) {
         this.configKey = ConfigPath.literal(configKey);
-        this.attributeParser = (ConfigValue configValue, AttributeErrorHandler errorHandler) -> {
-            return attributeFactory.create(configValue.asRequired(configType), errorHandler);
+        this.valueReader = (ConfigValue configValue) -> {
+            return configValue.asRequired(configType);
+        };
+        this.attributeParser = (Object value, AttributeErrorHandler errorHandler) -> {
+            return attributeFactory.create((V) value, errorHandler);
         };
     }
 
@@ -66,6 +71,13 @@ public enum AttributeType {
         return configKey;
     }
 
+    /*
+     * Reads the raw value of the attribute, which can be passed to the parser.
+     */
+    public Object readValue(ConfigValue configValue) throws ConfigValueException {
+        return valueReader.read(configValue);
+    }
+
     public AttributeParser getParser() {
         return attributeParser;
     }
@@ -83,10 +95,18 @@ public enum AttributeType {
     }
 
 
+    @FunctionalInterface
+    private interface ValueReader {
+
+        Object read(ConfigValue configValue) throws ConfigValueException;
+
+    }
+
+
     @FunctionalInterface
     public interface AttributeParser {
 
-        IconAttribute parse(ConfigValue configValue, AttributeErrorHandler errorHandler) throws ParseException, ConfigValueException;
+        IconAttribute parse(Object value, AttributeErrorHandler errorHandler) throws ParseException;
 
     }
 
@@ -20,6 +20,7 @@ import org.bukkit.Material;
 import java.nio.file.Path;
 import java.util.EnumMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -30,12 +31,14 @@ public class IconSettings {
     private final ConfigPath configPath;
     private final Map<AttributeType, IconAttribute> validAttributes;
     private final Set<AttributeType> invalidAttributes;
+    private final Map<AttributeType, Object> rawAttributeValues;
 
     public IconSettings(Path menuFile, ConfigPath configPath) {
         this.menuFile = menuFile;
         this.configPath = configPath;
         this.validAttributes = new EnumMap<>(AttributeType.class);
         this.invalidAttributes = new HashSet<>();
+        this.rawAttributeValues = new LinkedHashMap<>();
     }
 
     public InternalConfigurableIcon createIcon() {
@@ -57,6 +60,17 @@ public class IconSettings {
     }
 
     public void loadFrom(ConfigSection config, ErrorCollector errorCollector) {
+        readFrom(config, true, errorCollector);
+    }
+
+    /*
+     * Reads only the raw values, which can be parsed later with loadFrom().
+     */
+    public void readRawValuesFrom(ConfigSection config, ErrorCollector errorCollector) {
+        readFrom(config, false, errorCollector);
+    }
+
+    private void readFrom(ConfigSection config, boolean parseValues, ErrorCollector errorCollector) {
         for (Entry<ConfigPath, ConfigValue> entry : config.toMap().entrySet()) {
             ConfigPath configKey = entry.getKey();
             AttributeType attributeType = null;
@@ -66,13 +80,13 @@ public class IconSettings {
                     throw new ParseException(Errors.Parsing.unknownAttribute);
                 }
 
-                AttributeErrorHandler errorHandler = (String listElement, ParseException e) -> {
-                    errorCollector.add(e, Errors.Menu.invalidAttributeListElement(this, configKey, listElement));
-                };
-
                 ConfigValue configValue = config.get(configKey);
-                IconAttribute iconAttribute = attributeType.getParser().parse(configValue, errorHandler);
-                validAttributes.put(attributeType, iconAttribute);
+                Object rawValue = attributeType.readValue(configValue);
+                if (parseValues) {
+                    addAttribute(attributeType, configKey, rawValue, errorCollector);
+                } else {
+                    rawAttributeValues.put(attributeType, rawValue);
+                }
 
             } catch (ParseException | ConfigValueException e) {
                 errorCollector.add(e, Errors.Menu.invalidAttribute(this, configKey));
@@ -83,6 +97,47 @@ public class IconSettings {
         }
     }
 
+    /*
+     * Loads the raw values previously read from a config section, without reading the configuration again.
+     * Attributes that were invalid while reading are not reported again as missing.
+     */
+    public void loadFrom(Map<AttributeType, Object> attributeValues, Set<AttributeType> invalidAttributes, ErrorCollector errorCollector) {
+        this.invalidAttributes.addAll(invalidAttributes);
+
+        for (Entry<AttributeType, Object> entry : attributeValues.entrySet()) {
+            AttributeType attributeType = entry.getKey();
+            ConfigPath configKey = attributeType.getConfigKey();
+            try {
+                addAttribute(attributeType, configKey, entry.getValue(), errorCollector);
+            } catch (ParseException e) {
+                errorCollector.add(e, Errors.Menu.invalidAttribute(this, configKey));
+                this.invalidAttributes.add(attributeType);
+            }
+        }
+    }
+
+    private void addAttribute(AttributeType attributeType, ConfigPath configKey, Object rawValue, ErrorCollector errorCollector)
+            throws ParseException {
+        AttributeErrorHandler errorHandler = (String listElement, ParseException e) -> {
+            errorCollector.add(e, Errors.Menu.invalidAttributeListElement(this, configKey, listElement));
+        };
+
+        IconAttribute iconAttribute = attributeType.getParser().parse(rawValue, errorHandler);
+        validAttributes.put(attributeType, iconAttribute);
+        rawAttributeValues.put(attributeType, rawValue);
+    }
+
+    /*
+     * The raw values of the attributes that could be read, in the same order as the configuration.
+     */
+    public Map<AttributeType, Object> getRawAttributeValues() {
+        return rawAttributeValues;
+    }
+
+    public Set<AttributeType> getInvalidAttributes() {
+        return invalidAttributes;
+    }
+
     public Path getMenuFile() {
         return menuFile;
     }
@@ -18,12 +18,14 @@ public class LoadedMenu {
     private final Path sourceFile;
     private final ImmutableList<String> openCommands;
     private final MenuOpenItem openItem;
+    private final RawMenu rawMenu;
 
-    public LoadedMenu(InternalMenu menu, Path menuFile, List<String> openCommands, MenuOpenItem openItem) {
+    public LoadedMenu(InternalMenu menu, Path menuFile, List<String> openCommands, MenuOpenItem openItem, RawMenu rawMenu) {
         this.menu = menu;
         this.sourceFile = menuFile;
         this.openCommands = CollectionUtils.newImmutableList(openCommands);
         this.openItem = openItem;
+        this.rawMenu = rawMenu;
     }
 
     public InternalMenu getMenu() {
@@ -42,4 +44,8 @@ public class LoadedMenu {
         return openItem;
     }
 
+    public RawMenu getRawMenu() {
+        return rawMenu;
+    }
+
 }
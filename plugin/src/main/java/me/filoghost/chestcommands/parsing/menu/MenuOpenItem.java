@@ -25,6 +25,10 @@ public class MenuOpenItem {
         this.clickType = clickType;
     }
 
+    public Material getMaterial() {
+        return material;
+    }
+
     public void setRestrictiveDurability(short durability) {
         this.durability = durability;
         this.isRestrictiveDurability = true;
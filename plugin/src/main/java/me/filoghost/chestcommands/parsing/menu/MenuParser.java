@@ -6,17 +6,20 @@
 package me.filoghost.chestcommands.parsing.menu;
 
 import dev.lone.itemsadder.api.FontImages.FontImageWrapper;
+import me.filoghost.chestcommands.ChestCommands;
 import me.filoghost.chestcommands.action.Action;
 import me.filoghost.chestcommands.action.DisabledAction;
 import me.filoghost.chestcommands.attribute.PositionAttribute;
 import me.filoghost.chestcommands.hook.ItemsAdderHook;
 import me.filoghost.chestcommands.logging.Errors;
+import me.filoghost.chestcommands.logging.PrintableErrorCollector;
 import me.filoghost.chestcommands.menu.InternalMenu;
 import me.filoghost.chestcommands.parsing.ActionParser;
 import me.filoghost.chestcommands.parsing.ItemStackParser;
 import me.filoghost.chestcommands.parsing.ParseException;
 import me.filoghost.chestcommands.parsing.icon.AttributeType;
 import me.filoghost.chestcommands.parsing.icon.IconSettings;
+import me.filoghost.chestcommands.parsing.menu.RawMenu.RawIcon;
 import me.filoghost.fcommons.Colors;
 import me.filoghost.fcommons.config.ConfigPath;
 import me.filoghost.fcommons.config.ConfigSection;
@@ -27,6 +30,7 @@ import me.filoghost.fcommons.config.exception.MissingConfigValueException;
 import me.filoghost.fcommons.logging.ErrorCollector;
 import org.bukkit.ChatColor;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map.Entry;
@@ -34,22 +38,75 @@ import java.util.Map.Entry;
 public class MenuParser {
 
 
-    public static LoadedMenu loadMenu(FileConfig menuConfig, ErrorCollector errorCollector) {
-        MenuSettings menuSettings = loadMenuSettings(menuConfig, errorCollector);
-        List<IconSettings> iconSettingsList = loadIconSettingsList(menuConfig, errorCollector);
+    /*
+     * Loads a menu from the values previously read from its file, without reading the configuration again.
+     */
+    public static LoadedMenu loadMenu(RawMenu rawMenu, Path menuFile, ErrorCollector errorCollector) {
+        MenuSettings menuSettings = loadMenuSettings(rawMenu, menuFile, errorCollector);
 
-        InternalMenu menu = new InternalMenu(menuSettings.getTitle(), menuSettings.getRows(), menuConfig.getSourceFile());
+        InternalMenu menu = createMenu(menuSettings, menuFile);
+        addIcons(menu, loadIconSettingsList(rawMenu, menuFile, errorCollector), errorCollector);
+        return new LoadedMenu(menu, menuFile, menuSettings.getCommands(), menuSettings.getOpenItem(), rawMenu);
+    }
 
-        for (IconSettings iconSettings : iconSettingsList) {
-            tryAddIconToMenu(menu, iconSettings, errorCollector);
-        }
+    /*
+     * Reads the values of a menu file without parsing the icon attributes and the settings. Unlike the other methods, it
+     * doesn't use the API of other plugins and can be invoked outside the main thread.
+     */
+    public static RawMenu readRawMenu(FileConfig menuConfig, ErrorCollector errorCollector) {
+        RawMenu rawMenu = new RawMenu();
+        readMenuSettings(menuConfig, rawMenu, errorCollector);
+        addRawIcons(rawMenu, readIconSettingsList(menuConfig, errorCollector));
+        return rawMenu;
+    }
+
+    /*
+     * Loads only the menu settings, which are needed to open the menu. The icons are parsed and created when the menu is opened
+     * for the first time, and their errors are logged at that point. They are also added to the given error collector, which
+     * is reported again while the file doesn't change, and to the errors of the last load.
+     */
+    public static LoadedMenu loadMenuLazily(RawMenu rawMenu, Path menuFile, PrintableErrorCollector errorCollector) {
+        MenuSettings menuSettings = loadMenuSettings(rawMenu, menuFile, errorCollector);
+
+        InternalMenu menu = createMenu(menuSettings, menuFile);
+        menu.setIconsLoader(() -> {
+            PrintableErrorCollector iconsErrorCollector = new PrintableErrorCollector();
+            addIcons(menu, loadIconSettingsList(rawMenu, menuFile, iconsErrorCollector), iconsErrorCollector);
+            if (iconsErrorCollector.hasErrors()) {
+                iconsErrorCollector.logToConsole();
+                errorCollector.addAll(iconsErrorCollector);
+                ChestCommands.addLastLoadErrors(iconsErrorCollector);
+            }
+        });
+        return new LoadedMenu(menu, menuFile, menuSettings.getCommands(), menuSettings.getOpenItem(), rawMenu);
+    }
+
+    private static InternalMenu createMenu(MenuSettings menuSettings, Path menuFile) {
+        InternalMenu menu = new InternalMenu(menuSettings.getTitle(), menuSettings.getRows(), menuFile);
 
         menu.setRefreshTicks(menuSettings.getRefreshTicks());
         menu.setAutoCloseTicks(menuSettings.getAutoCloseTicks());
+        menu.setAntiClickSpamBurst(menuSettings.getAntiClickSpamBurst());
+        menu.setAntiClickSpamDelay(menuSettings.getAntiClickSpamDelay());
         menu.setOpenActions(menuSettings.getOpenActions());
         menu.setAutoReopen(menuSettings.isAutoReopen());
 
-        return new LoadedMenu(menu, menuConfig.getSourceFile(), menuSettings.getCommands(), menuSettings.getOpenItem());
+        return menu;
+    }
+
+    private static void addRawIcons(RawMenu rawMenu, List<IconSettings> iconSettingsList) {
+        for (IconSettings iconSettings : iconSettingsList) {
+            rawMenu.addIcon(new RawIcon(
+                    iconSettings.getConfigPath(),
+                    iconSettings.getRawAttributeValues(),
+                    iconSettings.getInvalidAttributes()));
+        }
+    }
+
+    private static void addIcons(InternalMenu menu, List<IconSettings> iconSettingsList, ErrorCollector errorCollector) {
+        for (IconSettings iconSettings : iconSettingsList) {
+            tryAddIconToMenu(menu, iconSettings, errorCollector);
+        }
     }
 
 
@@ -103,46 +160,86 @@ public class MenuParser {
     }
 
 
-    private static MenuSettings loadMenuSettings(FileConfig config, ErrorCollector errorCollector) {
+    private static void readMenuSettings(FileConfig config, RawMenu rawMenu, ErrorCollector errorCollector) {
         ConfigSection settingsSection = config.getConfigSection(MenuSettingsPath.ROOT_SECTION);
         if (settingsSection == null) {
             errorCollector.add(Errors.Menu.missingSettingsSection(config.getSourceFile()));
             settingsSection = new ConfigSection();
         }
 
-        String title;
         try {
-            title = Colors.addColors(settingsSection.getRequiredString(MenuSettingsNode.NAME));
+            rawMenu.setName(settingsSection.getRequiredString(MenuSettingsNode.NAME));
+        } catch (ConfigValueException e) {
+            addMenuSettingError(errorCollector, config.getSourceFile(), MenuSettingsPath.NAME, e);
+        }
+
+        try {
+            rawMenu.setRows(settingsSection.getRequiredInt(MenuSettingsPath.ROWS));
+        } catch (ConfigValueException e) {
+            addMenuSettingError(errorCollector, config.getSourceFile(), MenuSettingsPath.ROWS, e);
+        }
+
+        rawMenu.setAutoReopen(settingsSection.getBoolean(MenuSettingsNode.AUTO_REOPEN, false));
+        rawMenu.setCommands(settingsSection.getStringList(MenuSettingsNode.COMMANDS));
+        rawMenu.setOpenActions(settingsSection.getStringList(MenuSettingsPath.OPEN_ACTIONS));
+
+        rawMenu.setOpenItemMaterial(settingsSection.getString(MenuSettingsPath.OPEN_ITEM_MATERIAL));
+        rawMenu.setOpenItemLeftClick(settingsSection.getBoolean(MenuSettingsPath.OPEN_ITEM_LEFT_CLICK));
+        rawMenu.setOpenItemRightClick(settingsSection.getBoolean(MenuSettingsPath.OPEN_ITEM_RIGHT_CLICK));
+
+        if (settingsSection.contains(MenuSettingsPath.AUTO_REFRESH)) {
+            rawMenu.setAutoRefresh(settingsSection.getDouble(MenuSettingsPath.AUTO_REFRESH));
+        }
+        if (settingsSection.contains(MenuSettingsNode.AUTO_CLOSE)) {
+            rawMenu.setAutoClose(settingsSection.getDouble(MenuSettingsNode.AUTO_CLOSE));
+        }
+
+        if (settingsSection.contains(MenuSettingsPath.ANTI_CLICK_SPAM_BURST)) {
+            try {
+                rawMenu.setAntiClickSpamBurst(settingsSection.getRequiredInt(MenuSettingsPath.ANTI_CLICK_SPAM_BURST));
+            } catch (ConfigValueException e) {
+                addMenuSettingError(errorCollector, config.getSourceFile(), MenuSettingsPath.ANTI_CLICK_SPAM_BURST, e);
+            }
+        }
+        if (settingsSection.contains(MenuSettingsPath.ANTI_CLICK_SPAM_DELAY)) {
+            try {
+                rawMenu.setAntiClickSpamDelay(settingsSection.getRequiredInt(MenuSettingsPath.ANTI_CLICK_SPAM_DELAY));
+            } catch (ConfigValueException e) {
+                addMenuSettingError(errorCollector, config.getSourceFile(), MenuSettingsPath.ANTI_CLICK_SPAM_DELAY, e);
+            }
+        }
+    }
+
+    private static MenuSettings loadMenuSettings(RawMenu rawMenu, Path menuFile, ErrorCollector errorCollector) {
+        String title;
+        if (rawMenu.getName() != null) {
+            title = Colors.addColors(rawMenu.getName());
             if(ItemsAdderHook.INSTANCE.isEnabled())
                 title = FontImageWrapper.replaceFontImages(title);
 
             if (title.length() > 32) {
                 title = title.substring(0, 32);
             }
-        } catch (ConfigValueException e) {
+        } else {
             title = ChatColor.DARK_RED + "No name set";
-            addMenuSettingError(errorCollector, config, MenuSettingsPath.NAME, e);
         }
 
         int rows;
-        try {
-            rows = settingsSection.getRequiredInt(MenuSettingsPath.ROWS);
+        if (rawMenu.getRows() != null) {
+            rows = rawMenu.getRows();
             if (rows <= 0) {
                 rows = 1;
             }
-        } catch (ConfigValueException e) {
+        } else {
             rows = 6; // Defaults to 6 rows
-            addMenuSettingError(errorCollector, config, MenuSettingsPath.ROWS, e);
         }
 
         MenuSettings menuSettings = new MenuSettings(title, rows);
 
-        menuSettings.setAutoReopen(settingsSection.getBoolean(MenuSettingsNode.AUTO_REOPEN, false));
+        menuSettings.setAutoReopen(rawMenu.isAutoReopen());
+        menuSettings.setCommands(rawMenu.getCommands());
 
-        List<String> openCommands = settingsSection.getStringList(MenuSettingsNode.COMMANDS);
-        menuSettings.setCommands(openCommands);
-
-        List<String> serializedOpenActions = settingsSection.getStringList(MenuSettingsPath.OPEN_ACTIONS);
+        List<String> serializedOpenActions = rawMenu.getOpenActions();
 
         if (serializedOpenActions != null) {
             List<Action> openActions = new ArrayList<>();
@@ -153,7 +250,7 @@ public class MenuParser {
                         openActions.add(ActionParser.parse(serializedAction));
                     } catch (ParseException e) {
                         errorCollector.add(e, Errors.Menu.invalidSettingListElement(
-                                config.getSourceFile(), MenuSettingsPath.OPEN_ACTIONS, serializedAction));
+                                menuFile, MenuSettingsPath.OPEN_ACTIONS, serializedAction));
                         openActions.add(new DisabledAction(Errors.User.configurationError(
                                 "an action linked to opening this menu was not executed because it was not valid")));
                     }
@@ -163,10 +260,10 @@ public class MenuParser {
             menuSettings.setOpenActions(openActions);
         }
 
-        String openItemMaterial = settingsSection.getString(MenuSettingsPath.OPEN_ITEM_MATERIAL);
+        String openItemMaterial = rawMenu.getOpenItemMaterial();
         if (openItemMaterial != null) {
-            boolean leftClick = settingsSection.getBoolean(MenuSettingsPath.OPEN_ITEM_LEFT_CLICK);
-            boolean rightClick = settingsSection.getBoolean(MenuSettingsPath.OPEN_ITEM_RIGHT_CLICK);
+            boolean leftClick = rawMenu.isOpenItemLeftClick();
+            boolean rightClick = rawMenu.isOpenItemRightClick();
 
             if (leftClick || rightClick) {
                 try {
@@ -183,40 +280,47 @@ public class MenuParser {
                     menuSettings.setOpenItem(openItem);
 
                 } catch (ParseException e) {
-                    errorCollector.add(e, Errors.Menu.invalidSetting(config.getSourceFile(), MenuSettingsPath.OPEN_ITEM_MATERIAL));
+                    errorCollector.add(e, Errors.Menu.invalidSetting(menuFile, MenuSettingsPath.OPEN_ITEM_MATERIAL));
                 }
             }
         }
 
-        if (settingsSection.contains(MenuSettingsPath.AUTO_REFRESH)) {
-            int refreshTicks = (int) (settingsSection.getDouble(MenuSettingsPath.AUTO_REFRESH) * 20.0);
+        if (rawMenu.getAutoRefresh() != null) {
+            int refreshTicks = (int) (rawMenu.getAutoRefresh() * 20.0);
             if (refreshTicks < 1) {
                 refreshTicks = 1;
             }
             menuSettings.setRefreshTicks(refreshTicks);
         }
 
-        if (settingsSection.contains(MenuSettingsNode.AUTO_CLOSE)) {
-            int autoCloseTicks = (int) (settingsSection.getDouble(MenuSettingsNode.AUTO_CLOSE) * 20.0);
+        if (rawMenu.getAutoClose() != null) {
+            int autoCloseTicks = (int) (rawMenu.getAutoClose() * 20.0);
             if (autoCloseTicks < 1) {
                 autoCloseTicks = 1;
             }
             menuSettings.setAutoCloseTicks(autoCloseTicks);
         }
 
+        if (rawMenu.getAntiClickSpamBurst() != null) {
+            menuSettings.setAntiClickSpamBurst(Math.max(rawMenu.getAntiClickSpamBurst(), 1));
+        }
+        if (rawMenu.getAntiClickSpamDelay() != null) {
+            menuSettings.setAntiClickSpamDelay(Math.max(rawMenu.getAntiClickSpamDelay(), 0));
+        }
+
         return menuSettings;
     }
 
-    private static void addMenuSettingError(ErrorCollector errorCollector, FileConfig config, ConfigPath missingSetting, ConfigValueException e) {
+    private static void addMenuSettingError(ErrorCollector errorCollector, Path menuFile, ConfigPath missingSetting, ConfigValueException e) {
         if (e instanceof MissingConfigValueException) {
-            errorCollector.add(Errors.Menu.missingSetting(config.getSourceFile(), missingSetting));
+            errorCollector.add(Errors.Menu.missingSetting(menuFile, missingSetting));
         } else {
-            errorCollector.add(e, Errors.Menu.invalidSetting(config.getSourceFile(), missingSetting));
+            errorCollector.add(e, Errors.Menu.invalidSetting(menuFile, missingSetting));
         }
     }
 
 
-    private static List<IconSettings> loadIconSettingsList(FileConfig config, ErrorCollector errorCollector) {
+    private static List<IconSettings> readIconSettingsList(FileConfig config, ErrorCollector errorCollector) {
         List<IconSettings> iconSettingsList = new ArrayList<>();
 
         for (Entry<ConfigPath, ConfigSection> entry : config.toMap(ConfigType.SECTION).entrySet()) {
@@ -227,7 +331,19 @@ public class MenuParser {
 
             ConfigSection iconSection = entry.getValue();
             IconSettings iconSettings = new IconSettings(config.getSourceFile(), iconSectionKey);
-            iconSettings.loadFrom(iconSection, errorCollector);
+            iconSettings.readRawValuesFrom(iconSection, errorCollector);
+            iconSettingsList.add(iconSettings);
+        }
+
+        return iconSettingsList;
+    }
+
+    private static List<IconSettings> loadIconSettingsList(RawMenu rawMenu, Path menuFile, ErrorCollector errorCollector) {
+        List<IconSettings> iconSettingsList = new ArrayList<>();
+
+        for (RawIcon rawIcon : rawMenu.getIcons()) {
+            IconSettings iconSettings = new IconSettings(menuFile, rawIcon.getConfigPath());
+            iconSettings.loadFrom(rawIcon.getAttributeValues(), rawIcon.getInvalidAttributes(), errorCollector);
             iconSettingsList.add(iconSettings);
         }
 
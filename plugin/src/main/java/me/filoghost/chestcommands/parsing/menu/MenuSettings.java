@@ -23,6 +23,8 @@ public class MenuSettings {
     private int refreshTicks;
     private boolean autoReopen;
     private int autoCloseTicks;
+    private int antiClickSpamBurst = 1;
+    private int antiClickSpamDelay = -1; // Negative to use the global delay
 
     private MenuOpenItem openItem;
 
@@ -90,4 +92,20 @@ public class MenuSettings {
     {
         this.autoCloseTicks = autoCloseTicks;
     }
+
+    public int getAntiClickSpamBurst() {
+        return antiClickSpamBurst;
+    }
+
+    public void setAntiClickSpamBurst(int antiClickSpamBurst) {
+        this.antiClickSpamBurst = antiClickSpamBurst;
+    }
+
+    public int getAntiClickSpamDelay() {
+        return antiClickSpamDelay;
+    }
+
+    public void setAntiClickSpamDelay(int antiClickSpamDelay) {
+        this.antiClickSpamDelay = antiClickSpamDelay;
+    }
 }
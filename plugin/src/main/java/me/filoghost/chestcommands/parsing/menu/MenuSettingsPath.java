@@ -22,4 +22,7 @@ public class MenuSettingsPath {
     public static final ConfigPath OPEN_ITEM_LEFT_CLICK = ConfigPath.literal("open-with-item", "left-click");
     public static final ConfigPath OPEN_ITEM_RIGHT_CLICK = ConfigPath.literal("open-with-item", "right-click");
 
+    public static final ConfigPath ANTI_CLICK_SPAM_BURST = ConfigPath.literal("anti-click-spam", "burst");
+    public static final ConfigPath ANTI_CLICK_SPAM_DELAY = ConfigPath.literal("anti-click-spam", "delay");
+
 }
@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.parsing.menu;
+
+import me.filoghost.chestcommands.parsing.icon.AttributeType;
+import me.filoghost.fcommons.config.ConfigPath;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * The values read from a menu file, before they are parsed into menu settings and icons.
+ * It doesn't depend on the YAML configuration, so that it can be stored and loaded again quickly.
+ */
+public class RawMenu {
+
+    // Menu settings, null when missing or invalid
+    private @Nullable String name;
+    private @Nullable Integer rows;
+    private boolean autoReopen;
+    private @Nullable List<String> commands;
+    private @Nullable List<String> openActions;
+    private @Nullable String openItemMaterial;
+    private boolean openItemLeftClick;
+    private boolean openItemRightClick;
+    private @Nullable Double autoRefresh;
+    private @Nullable Double autoClose;
+    private @Nullable Integer antiClickSpamBurst;
+    private @Nullable Integer antiClickSpamDelay;
+
+    private final List<RawIcon> icons = new ArrayList<>();
+
+    public @Nullable String getName() {
+        return name;
+    }
+
+    public void setName(@Nullable String name) {
+        this.name = name;
+    }
+
+    public @Nullable Integer getRows() {
+        return rows;
+    }
+
+    public void setRows(@Nullable Integer rows) {
+        this.rows = rows;
+    }
+
+    public boolean isAutoReopen() {
+        return autoReopen;
+    }
+
+    public void setAutoReopen(boolean autoReopen) {
+        this.autoReopen = autoReopen;
+    }
+
+    public @Nullable List<String> getCommands() {
+        return commands;
+    }
+
+    public void setCommands(@Nullable List<String> commands) {
+        this.commands = commands;
+    }
+
+    public @Nullable List<String> getOpenActions() {
+        return openActions;
+    }
+
+    public void setOpenActions(@Nullable List<String> openActions) {
+        this.openActions = openActions;
+    }
+
+    public @Nullable String getOpenItemMaterial() {
+        return openItemMaterial;
+    }
+
+    public void setOpenItemMaterial(@Nullable String openItemMaterial) {
+        this.openItemMaterial = openItemMaterial;
+    }
+
+    public boolean isOpenItemLeftClick() {
+        return openItemLeftClick;
+    }
+
+    public void setOpenItemLeftClick(boolean openItemLeftClick) {
+        this.openItemLeftClick = openItemLeftClick;
+    }
+
+    public boolean isOpenItemRightClick() {
+        return openItemRightClick;
+    }
+
+    public void setOpenItemRightClick(boolean openItemRightClick) {
+        this.openItemRightClick = openItemRightClick;
+    }
+
+    public @Nullable Double getAutoRefresh() {
+        return autoRefresh;
+    }
+
+    public void setAutoRefresh(@Nullable Double autoRefresh) {
+        this.autoRefresh = autoRefresh;
+    }
+
+    public @Nullable Double getAutoClose() {
+        return autoClose;
+    }
+
+    public void setAutoClose(@Nullable Double autoClose) {
+        this.autoClose = autoClose;
+    }
+
+    public @Nullable Integer getAntiClickSpamBurst() {
+        return antiClickSpamBurst;
+    }
+
+    public void setAntiClickSpamBurst(@Nullable Integer antiClickSpamBurst) {
+        this.antiClickSpamBurst = antiClickSpamBurst;
+    }
+
+    public @Nullable Integer getAntiClickSpamDelay() {
+        return antiClickSpamDelay;
+    }
+
+    public void setAntiClickSpamDelay(@Nullable Integer antiClickSpamDelay) {
+        this.antiClickSpamDelay = antiClickSpamDelay;
+    }
+
+    public List<RawIcon> getIcons() {
+        return Collections.unmodifiableList(icons);
+    }
+
+    public void addIcon(RawIcon icon) {
+        icons.add(icon);
+    }
+
+
+    public static class RawIcon {
+
+        private final ConfigPath configPath;
+        private final Map<AttributeType, Object> attributeValues;
+        private final Set<AttributeType> invalidAttributes;
+
+        /*
+         * The attribute values must be of the type read by AttributeType.readValue().
+         */
+        public RawIcon(ConfigPath configPath, Map<AttributeType, Object> attributeValues, Set<AttributeType> invalidAttributes) {
+            this.configPath = configPath;
+            this.attributeValues = new LinkedHashMap<>(attributeValues);
+            this.invalidAttributes = new HashSet<>(invalidAttributes);
+        }
+
+        public ConfigPath getConfigPath() {
+            return configPath;
+        }
+
+        public Map<AttributeType, Object> getAttributeValues() {
+            return Collections.unmodifiableMap(attributeValues);
+        }
+
+        /*
+         * The attributes that were present but couldn't be read, already reported as errors.
+         */
+        public Set<AttributeType> getInvalidAttributes() {
+            return Collections.unmodifiableSet(invalidAttributes);
+        }
+
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.placeholder;
+
+import me.filoghost.chestcommands.ChestCommands;
+import me.filoghost.chestcommands.api.AsyncPlaceholderReplacer;
+import me.filoghost.chestcommands.api.PlaceholderCachePolicy;
+import me.filoghost.chestcommands.config.Settings;
+import me.filoghost.chestcommands.inventory.DefaultMenuView;
+import me.filoghost.chestcommands.menu.MenuManager;
+import me.filoghost.chestcommands.placeholder.scanner.PlaceholderMatch;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Computes the replacements of asynchronous placeholders on worker threads, and stores them in the cache on the main
+ * thread. All the methods must be invoked on the main thread.
+ */
+class AsyncReplacementResolver {
+
+    // Cached when the replacer returns null, compared by identity to display the placeholder as it is
+    private static final String NO_REPLACEMENT = new String("");
+
+    private final PlaceholderCache placeholderCache;
+    private final Map<PendingReplacement, Set<Player>> waitingPlayersByPendingReplacement;
+    private ExecutorService executor;
+
+    AsyncReplacementResolver(PlaceholderCache placeholderCache) {
+        this.placeholderCache = placeholderCache;
+        this.waitingPlayersByPendingReplacement = new HashMap<>();
+    }
+
+    @Nullable String getReplacement(int cacheId, PlaceholderMatch placeholderMatch, Placeholder placeholder, Player player) {
+        PlaceholderCachePolicy cachePolicy = placeholder.getCachePolicy();
+        String replacement = placeholderCache.get(cacheId, player, cachePolicy);
+
+        if (replacement == null) {
+            requestReplacement(cacheId, placeholderMatch, placeholder, player);
+
+            // Display the previous value while the new one is computed
+            replacement = placeholderCache.getLastKnown(cacheId, player, cachePolicy);
+            if (replacement == null) {
+                AsyncPlaceholderReplacer replacer = (AsyncPlaceholderReplacer) placeholder.getReplacer();
+                return replacer.getPendingReplacement(player, placeholderMatch.getArgument());
+            }
+        }
+
+        if (replacement == NO_REPLACEMENT) {
+            return null;
+        } else {
+            return replacement;
+        }
+    }
+
+    private void requestReplacement(int cacheId, PlaceholderMatch placeholderMatch, Placeholder placeholder, Player player) {
+        Player replacementOwner = placeholder.getCachePolicy().isViewerIndependent() ? null : player;
+        PendingReplacement pendingReplacement = new PendingReplacement(cacheId, replacementOwner, placeholder,
+                PlaceholderManager.getRegistryVersion());
+
+        // Avoid computing the same replacement more than once at the same time
+        Set<Player> waitingPlayers = waitingPlayersByPendingReplacement.get(pendingReplacement);
+        if (waitingPlayers != null) {
+            waitingPlayers.add(player);
+            return;
+        }
+
+        waitingPlayers = new HashSet<>();
+        waitingPlayers.add(player);
+        waitingPlayersByPendingReplacement.put(pendingReplacement, waitingPlayers);
+
+        getExecutor().execute(() -> {
+            String replacement = PlaceholderManager.computeReplacement(placeholderMatch, placeholder, player);
+
+            ChestCommands plugin = ChestCommands.getInstance();
+            if (plugin.isEnabled()) {
+                Bukkit.getScheduler().runTask(plugin, () -> onReplacementComputed(pendingReplacement, player, replacement));
+            }
+        });
+    }
+
+    private void onReplacementComputed(PendingReplacement pendingReplacement, Player player, @Nullable String replacement) {
+        Set<Player> waitingPlayers = waitingPlayersByPendingReplacement.remove(pendingReplacement);
+        if (waitingPlayers == null) {
+            return; // Discarded in the meantime
+        }
+
+        // Ignore replacements computed before placeholders changed, and of players who left
+        if (pendingReplacement.registryVersion != PlaceholderManager.getRegistryVersion()) {
+            return;
+        }
+        if (pendingReplacement.player != null && !pendingReplacement.player.isOnline()) {
+            return;
+        }
+
+        Placeholder placeholder = pendingReplacement.placeholder;
+
+        if (replacement == null) {
+            replacement = NO_REPLACEMENT;
+        }
+        placeholderCache.put(pendingReplacement.cacheId, player, placeholder.getCachePolicy(), replacement);
+
+        for (Player waitingPlayer : waitingPlayers) {
+            DefaultMenuView menuView = MenuManager.getOpenMenuView(waitingPlayer);
+            if (menuView != null) {
+                menuView.refresh();
+            }
+        }
+    }
+
+    private ExecutorService getExecutor() {
+        if (executor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            int workerThreads = Math.max(1, Settings.get().async_placeholders__worker_threads);
+
+            executor = Executors.newFixedThreadPool(workerThreads, runnable -> {
+                Thread thread = new Thread(runnable, "ChestCommands Placeholder Worker #" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        waitingPlayersByPendingReplacement.clear();
+    }
+
+
+    private static class PendingReplacement {
+
+        private final int cacheId;
+        private final @Nullable Player player; // Null if the replacement is the same for all the players
+        private final Placeholder placeholder;
+        private final int registryVersion;
+
+        private PendingReplacement(int cacheId, @Nullable Player player, Placeholder placeholder, int registryVersion) {
+            this.cacheId = cacheId;
+            this.player = player;
+            this.placeholder = placeholder;
+            this.registryVersion = registryVersion;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || this.getClass() != obj.getClass()) {
+                return false;
+            }
+
+            PendingReplacement other = (PendingReplacement) obj;
+            return this.cacheId == other.cacheId
+                    && this.player == other.player
+                    && this.placeholder == other.placeholder
+                    && this.registryVersion == other.registryVersion;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(cacheId, player, placeholder, registryVersion);
+        }
+
+    }
+
+}
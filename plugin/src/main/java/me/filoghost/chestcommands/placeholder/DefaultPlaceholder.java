@@ -5,21 +5,22 @@
  */
 package me.filoghost.chestcommands.placeholder;
 
+import me.filoghost.chestcommands.api.PlaceholderCachePolicy;
 import me.filoghost.chestcommands.api.PlaceholderReplacer;
 import me.filoghost.chestcommands.hook.VaultEconomyHook;
 import org.bukkit.Bukkit;
 
 public enum DefaultPlaceholder {
 
-    PLAYER("player", (player, argument) -> player.getName()),
+    PLAYER("player", PlaceholderCachePolicy.session(), (player, argument) -> player.getName()),
 
-    ONLINE("online", (player, argument) -> String.valueOf(Bukkit.getOnlinePlayers().size())),
+    ONLINE("online", PlaceholderCachePolicy.everyTick().viewerIndependent(), (player, argument) -> String.valueOf(Bukkit.getOnlinePlayers().size())),
 
-    MAX_PLAYERS("max_players", (player, argument) -> String.valueOf(Bukkit.getMaxPlayers())),
+    MAX_PLAYERS("max_players", PlaceholderCachePolicy.permanent(), (player, argument) -> String.valueOf(Bukkit.getMaxPlayers())),
 
-    WORLD("world", (player, argument) -> player.getWorld().getName()),
+    WORLD("world", PlaceholderCachePolicy.everyTick(), (player, argument) -> player.getWorld().getName()),
 
-    MONEY("money", (player, argument) -> {
+    MONEY("money", PlaceholderCachePolicy.ticks(10), (player, argument) -> {
         if (VaultEconomyHook.INSTANCE.isEnabled()) {
             return VaultEconomyHook.formatMoney(VaultEconomyHook.getMoney(player));
         } else {
@@ -29,10 +30,12 @@ public enum DefaultPlaceholder {
 
 
     private final String identifier;
+    private final PlaceholderCachePolicy cachePolicy;
     private final PlaceholderReplacer replacer;
 
-    DefaultPlaceholder(String identifier, PlaceholderReplacer replacer) {
+    DefaultPlaceholder(String identifier, PlaceholderCachePolicy cachePolicy, PlaceholderReplacer replacer) {
         this.identifier = identifier;
+        this.cachePolicy = cachePolicy;
         this.replacer = replacer;
     }
 
@@ -40,6 +43,10 @@ public enum DefaultPlaceholder {
         return identifier;
     }
 
+    public PlaceholderCachePolicy getCachePolicy() {
+        return cachePolicy;
+    }
+
     public PlaceholderReplacer getReplacer() {
         return replacer;
     }
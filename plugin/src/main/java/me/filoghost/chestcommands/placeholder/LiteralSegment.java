@@ -0,0 +1,23 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.placeholder;
+
+import org.bukkit.entity.Player;
+
+class LiteralSegment implements TemplateSegment {
+
+    private final String text;
+
+    LiteralSegment(String text) {
+        this.text = text;
+    }
+
+    @Override
+    public void appendTo(StringBuilder output, Player player) {
+        output.append(text);
+    }
+
+}
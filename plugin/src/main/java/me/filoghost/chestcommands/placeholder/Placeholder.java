@@ -5,16 +5,19 @@
  */
 package me.filoghost.chestcommands.placeholder;
 
+import me.filoghost.chestcommands.api.PlaceholderCachePolicy;
 import me.filoghost.chestcommands.api.PlaceholderReplacer;
 import org.bukkit.plugin.Plugin;
 
 public class Placeholder {
 
     private final Plugin plugin;
+    private final PlaceholderCachePolicy cachePolicy;
     private final PlaceholderReplacer placeholderReplacer;
 
-    public Placeholder(Plugin plugin, PlaceholderReplacer placeholderReplacer) {
+    public Placeholder(Plugin plugin, PlaceholderCachePolicy cachePolicy, PlaceholderReplacer placeholderReplacer) {
         this.plugin = plugin;
+        this.cachePolicy = cachePolicy;
         this.placeholderReplacer = placeholderReplacer;
     }
 
@@ -22,6 +25,10 @@ public class Placeholder {
         return plugin;
     }
 
+    public PlaceholderCachePolicy getCachePolicy() {
+        return cachePolicy;
+    }
+
     public PlaceholderReplacer getReplacer() {
         return placeholderReplacer;
     }
@@ -0,0 +1,25 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.placeholder;
+
+import org.bukkit.entity.Player;
+
+class PlaceholderAPISegment implements TemplateSegment {
+
+    private final String placeholderText; // Including the percent signs, for example "%player_name%"
+    private final int cacheId;
+
+    PlaceholderAPISegment(String placeholderText) {
+        this.placeholderText = placeholderText;
+        this.cacheId = PlaceholderManager.getPlaceholderAPICacheId(placeholderText);
+    }
+
+    @Override
+    public void appendTo(StringBuilder output, Player player) {
+        output.append(PlaceholderManager.getPlaceholderAPIReplacement(cacheId, placeholderText, player));
+    }
+
+}
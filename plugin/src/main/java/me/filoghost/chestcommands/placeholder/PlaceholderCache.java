@@ -5,29 +5,189 @@
  */
 package me.filoghost.chestcommands.placeholder;
 
+import me.filoghost.chestcommands.api.PlaceholderCachePolicy;
+import me.filoghost.chestcommands.placeholder.scanner.PlaceholderMatch;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
-import me.filoghost.chestcommands.placeholder.scanner.PlaceholderMatch;
-import org.bukkit.entity.Player;
 
 public class PlaceholderCache {
 
-    private final Map<Player, Map<PlaceholderMatch, String>> cachedReplacements;
+    private static final long NEVER_EXPIRES = Long.MAX_VALUE;
+
+    // Placeholders are compiled once, so lookups use their small integer ID instead of hashing the match each time
+    private final Map<PlaceholderMatch, Integer> idsByMatch;
+    private final Map<String, Integer> idsByPlaceholderAPIText;
+    private final AtomicInteger nextId;
+
+    private final Map<Player, CachedReplacements> cachedReplacements;
+    private final CachedReplacements cachedSharedReplacements;
+    private long currentTick;
 
     public PlaceholderCache() {
-        cachedReplacements = new WeakHashMap<>();
+        idsByMatch = new ConcurrentHashMap<>();
+        idsByPlaceholderAPIText = new ConcurrentHashMap<>();
+        nextId = new AtomicInteger();
+        cachedReplacements = new HashMap<>();
+        cachedSharedReplacements = new CachedReplacements();
+    }
+
+    /*
+     * Returns the same ID for equal placeholder matches. This may also be invoked outside the main thread.
+     */
+    public int getId(PlaceholderMatch placeholderMatch) {
+        return idsByMatch.computeIfAbsent(placeholderMatch, key -> nextId.getAndIncrement());
     }
 
-    public String computeIfAbsent(PlaceholderMatch placeholderMatch, Player player, Supplier<String> replacementGetter) {
-        return cachedReplacements
-                .computeIfAbsent(player, key -> new HashMap<>())
-                .computeIfAbsent(placeholderMatch, key -> replacementGetter.get());
+    public int getPlaceholderAPIId(String placeholderText) {
+        return idsByPlaceholderAPIText.computeIfAbsent(placeholderText, key -> nextId.getAndIncrement());
+    }
+
+    public String computeIfAbsent(int id, Player player, PlaceholderCachePolicy cachePolicy, Supplier<String> replacementGetter) {
+        // Expired entries are replaced only when requested again
+        String cachedReplacement = get(id, player, cachePolicy);
+        if (cachedReplacement != null) {
+            return cachedReplacement;
+        }
+
+        String replacement = replacementGetter.get();
+        if (replacement != null) {
+            put(id, player, cachePolicy, replacement);
+        }
+        return replacement;
+    }
+
+    public @Nullable String get(int id, Player player, PlaceholderCachePolicy cachePolicy) {
+        CachedReplacements replacements = getReplacements(player, cachePolicy);
+        if (replacements != null) {
+            return replacements.get(id, currentTick);
+        } else {
+            return null;
+        }
+    }
+
+    /*
+     * Returns the last replacement, even if expired.
+     */
+    public @Nullable String getLastKnown(int id, Player player, PlaceholderCachePolicy cachePolicy) {
+        CachedReplacements replacements = getReplacements(player, cachePolicy);
+        if (replacements != null) {
+            return replacements.getLastKnown(id);
+        } else {
+            return null;
+        }
+    }
+
+    public void put(int id, Player player, PlaceholderCachePolicy cachePolicy, String replacement) {
+        CachedReplacements replacements;
+        if (cachePolicy.isViewerIndependent()) {
+            replacements = cachedSharedReplacements;
+        } else {
+            replacements = cachedReplacements.computeIfAbsent(player, key -> new CachedReplacements());
+        }
+        replacements.put(id, replacement, getExpirationTick(cachePolicy));
+    }
+
+    private @Nullable CachedReplacements getReplacements(Player player, PlaceholderCachePolicy cachePolicy) {
+        if (cachePolicy.isViewerIndependent()) {
+            return cachedSharedReplacements;
+        } else {
+            return cachedReplacements.get(player);
+        }
+    }
+
+    private long getExpirationTick(PlaceholderCachePolicy cachePolicy) {
+        if (cachePolicy.isNeverExpiring()) {
+            return NEVER_EXPIRES;
+        } else {
+            return currentTick + cachePolicy.getDurationTicks();
+        }
+    }
+
+    /*
+     * Expires the replacements of the player which are not kept for the whole session.
+     */
+    public void invalidateExpiring(Player player) {
+        CachedReplacements replacements = cachedReplacements.get(player);
+        if (replacements != null) {
+            replacements.invalidateExpiring();
+        }
+    }
+
+    public void onPlayerQuit(Player player) {
+        cachedReplacements.remove(player);
+    }
+
+    public void clear() {
+        cachedReplacements.clear();
+        cachedSharedReplacements.clear();
     }
 
     public void onTick() {
-        cachedReplacements.forEach((player, placeholderMap) -> placeholderMap.clear());
+        currentTick++;
+    }
+
+
+    private static class CachedReplacements {
+
+        private static final String[] EMPTY_VALUES = new String[0];
+        private static final long[] EMPTY_EXPIRATION_TICKS = new long[0];
+
+        // Indexed by placeholder ID
+        private String[] values;
+        private long[] expirationTicks;
+
+        private CachedReplacements() {
+            values = EMPTY_VALUES;
+            expirationTicks = EMPTY_EXPIRATION_TICKS;
+        }
+
+        private String get(int id, long currentTick) {
+            if (id < values.length && expirationTicks[id] > currentTick) {
+                return values[id];
+            } else {
+                return null;
+            }
+        }
+
+        private String getLastKnown(int id) {
+            if (id < values.length) {
+                return values[id];
+            } else {
+                return null;
+            }
+        }
+
+        private void put(int id, String value, long expirationTick) {
+            if (id >= values.length) {
+                int newLength = Math.max(id + 1, values.length * 2);
+                values = Arrays.copyOf(values, newLength);
+                expirationTicks = Arrays.copyOf(expirationTicks, newLength);
+            }
+
+            values[id] = value;
+            expirationTicks[id] = expirationTick;
+        }
+
+        private void invalidateExpiring() {
+            for (int id = 0; id < values.length; id++) {
+                if (expirationTicks[id] != NEVER_EXPIRES) {
+                    expirationTicks[id] = 0; // Keep the value as last known replacement
+                }
+            }
+        }
+
+        private void clear() {
+            values = EMPTY_VALUES;
+            expirationTicks = EMPTY_EXPIRATION_TICKS;
+        }
+
     }
 
 }
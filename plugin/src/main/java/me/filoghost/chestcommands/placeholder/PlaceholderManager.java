@@ -5,10 +5,11 @@
  */
 package me.filoghost.chestcommands.placeholder;
 
+import me.filoghost.chestcommands.api.AsyncPlaceholderReplacer;
+import me.filoghost.chestcommands.api.PlaceholderCachePolicy;
 import me.filoghost.chestcommands.api.PlaceholderReplacer;
 import me.filoghost.chestcommands.hook.PlaceholderAPIHook;
 import me.filoghost.chestcommands.placeholder.scanner.PlaceholderMatch;
-import me.filoghost.chestcommands.placeholder.scanner.PlaceholderScanner;
 import me.filoghost.fcommons.Preconditions;
 import me.filoghost.fcommons.logging.Log;
 import org.bukkit.entity.Player;
@@ -23,59 +24,61 @@ public class PlaceholderManager {
     private static final List<StaticPlaceholder> staticPlaceholders = new ArrayList<>();
     private static final PlaceholderRegistry dynamicPlaceholderRegistry = new PlaceholderRegistry();
     private static final PlaceholderCache placeholderCache = new PlaceholderCache();
+    private static final AsyncReplacementResolver asyncReplacementResolver = new AsyncReplacementResolver(placeholderCache);
     static {
         for (DefaultPlaceholder placeholder : DefaultPlaceholder.values()) {
-            dynamicPlaceholderRegistry.registerInternalPlaceholder(placeholder.getIdentifier(), placeholder.getReplacer());
+            dynamicPlaceholderRegistry.registerInternalPlaceholder(placeholder.getIdentifier(), placeholder.getCachePolicy(), placeholder.getReplacer());
         }
     }
 
-    public static boolean hasDynamicPlaceholders(List<String> list) {
-        for (String element : list) {
-            if (hasDynamicPlaceholders(element)) {
-                return true;
-            }
-        }
-        return false;
+    static boolean isPlaceholderAPIEnabled() {
+        return PlaceholderAPIHook.INSTANCE.isEnabled();
     }
 
-    public static boolean hasDynamicPlaceholders(String text) {
-        if (new PlaceholderScanner(text).containsAny()) {
-            return true;
-        }
+    static int getPlaceholderAPICacheId(String placeholderText) {
+        return placeholderCache.getPlaceholderAPIId(placeholderText);
+    }
+
+    static String getPlaceholderAPIReplacement(int cacheId, String placeholderText, Player player) {
+        String replacement = placeholderCache.computeIfAbsent(cacheId, player, PlaceholderCachePolicy.everyTick(),
+                () -> PlaceholderAPIHook.setPlaceholders(placeholderText, player));
 
-        if (PlaceholderAPIHook.INSTANCE.isEnabled() && PlaceholderAPIHook.hasPlaceholders(text)) {
-            return true;
+        if (replacement != null) {
+            return replacement;
+        } else {
+            return placeholderText;
         }
+    }
 
-        return false;
+    static @Nullable Placeholder getPlaceholder(PlaceholderMatch placeholderMatch) {
+        return dynamicPlaceholderRegistry.getPlaceholder(placeholderMatch);
+    }
+
+    static int getRegistryVersion() {
+        return dynamicPlaceholderRegistry.getVersion();
     }
 
-    public static String replaceDynamicPlaceholders(String text, Player player) {
-        text = new PlaceholderScanner(text).replace(match -> getReplacement(match, player));
+    static int getCacheId(PlaceholderMatch placeholderMatch) {
+        return placeholderCache.getId(placeholderMatch);
+    }
 
-        if (PlaceholderAPIHook.INSTANCE.isEnabled()) {
-            text = PlaceholderAPIHook.setPlaceholders(text, player);
+    static @Nullable String getReplacement(int cacheId, PlaceholderMatch placeholderMatch, Placeholder placeholder, Player player) {
+        if (placeholder.getReplacer() instanceof AsyncPlaceholderReplacer) {
+            return asyncReplacementResolver.getReplacement(cacheId, placeholderMatch, placeholder, player);
         }
 
-        return text;
+        return placeholderCache.computeIfAbsent(cacheId, player, placeholder.getCachePolicy(),
+                () -> computeReplacement(placeholderMatch, placeholder, player));
     }
 
-    private static @Nullable String getReplacement(PlaceholderMatch placeholderMatch, Player player) {
-        Placeholder placeholder = dynamicPlaceholderRegistry.getPlaceholder(placeholderMatch);
-
-        if (placeholder == null) {
-            return null; // Placeholder not found
+    static @Nullable String computeReplacement(PlaceholderMatch placeholderMatch, Placeholder placeholder, Player player) {
+        try {
+            return placeholder.getReplacer().getReplacement(player, placeholderMatch.getArgument());
+        } catch (Throwable t) {
+            Log.severe("Encountered an exception while replacing the placeholder \"" + placeholderMatch.getIdentifier()
+                    + "\" registered by the plugin \"" + placeholder.getPlugin().getName() + "\"", t);
+            return "[PLACEHOLDER ERROR]";
         }
-
-        return placeholderCache.computeIfAbsent(placeholderMatch, player, () -> {
-            try {
-                return placeholder.getReplacer().getReplacement(player, placeholderMatch.getArgument());
-            } catch (Throwable t) {
-                Log.severe("Encountered an exception while replacing the placeholder \"" + placeholderMatch.getIdentifier()
-                        + "\" registered by the plugin \"" + placeholder.getPlugin().getName() + "\"", t);
-                return "[PLACEHOLDER ERROR]";
-            }
-        });
     }
 
     public static void setStaticPlaceholders(List<StaticPlaceholder> staticPlaceholders) {
@@ -108,19 +111,29 @@ public class PlaceholderManager {
         return text;
     }
 
-    public static void registerPluginPlaceholder(Plugin plugin, String identifier, PlaceholderReplacer placeholderReplacer) {
+    public static void registerPluginPlaceholder(
+            Plugin plugin,
+            String identifier,
+            PlaceholderCachePolicy cachePolicy,
+            PlaceholderReplacer placeholderReplacer) {
         Preconditions.notNull(plugin, "plugin");
         checkIdentifierArgument(identifier);
+        Preconditions.notNull(cachePolicy, "cachePolicy");
         Preconditions.notNull(placeholderReplacer, "placeholderReplacer");
 
-        dynamicPlaceholderRegistry.registerExternalPlaceholder(plugin, identifier, placeholderReplacer);
+        dynamicPlaceholderRegistry.registerExternalPlaceholder(plugin, identifier, cachePolicy, placeholderReplacer);
+        placeholderCache.clear(); // Replacements of a previous placeholder may still be cached
     }
 
     public static boolean unregisterPluginPlaceholder(Plugin plugin, String identifier) {
         Preconditions.notNull(plugin, "plugin");
         checkIdentifierArgument(identifier);
 
-        return dynamicPlaceholderRegistry.unregisterExternalPlaceholder(plugin, identifier);
+        boolean removed = dynamicPlaceholderRegistry.unregisterExternalPlaceholder(plugin, identifier);
+        if (removed) {
+            placeholderCache.clear();
+        }
+        return removed;
     }
 
     private static void checkIdentifierArgument(String identifier) {
@@ -129,6 +142,18 @@ public class PlaceholderManager {
         Preconditions.checkArgument(identifier.matches("[a-zA-Z0-9_]+"), "identifier must contain only letters, numbers and underscores");
     }
 
+    public static void invalidateCachedReplacements(Player player) {
+        placeholderCache.invalidateExpiring(player);
+    }
+
+    public static void onPlayerQuit(Player player) {
+        placeholderCache.onPlayerQuit(player);
+    }
+
+    public static void shutdown() {
+        asyncReplacementResolver.shutdown();
+    }
+
     public static void onTick() {
         placeholderCache.onTick();
     }
@@ -6,6 +6,7 @@
 package me.filoghost.chestcommands.placeholder;
 
 import me.filoghost.chestcommands.ChestCommands;
+import me.filoghost.chestcommands.api.PlaceholderCachePolicy;
 import me.filoghost.chestcommands.api.PlaceholderReplacer;
 import me.filoghost.chestcommands.placeholder.scanner.PlaceholderMatch;
 import me.filoghost.fcommons.collection.CaseInsensitiveHashMap;
@@ -22,14 +23,22 @@ public class PlaceholderRegistry {
     // <identifier, <pluginName, placeholder>>
     private final CaseInsensitiveMap<CaseInsensitiveMap<Placeholder>> externalPlaceholders = new CaseInsensitiveHashMap<>();
 
-    public void registerInternalPlaceholder(String identifier, PlaceholderReplacer replacer) {
-        internalPlaceholders.put(identifier, new Placeholder(ChestCommands.getInstance(), replacer));
+    // Incremented on each change, to invalidate placeholders resolved previously
+    private int version;
+
+    public void registerInternalPlaceholder(String identifier, PlaceholderCachePolicy cachePolicy, PlaceholderReplacer replacer) {
+        internalPlaceholders.put(identifier, new Placeholder(ChestCommands.getInstance(), cachePolicy, replacer));
+        version++;
     }
 
-    public void registerExternalPlaceholder(Plugin plugin, String identifier, PlaceholderReplacer placeholderReplacer) {
+    public void registerExternalPlaceholder(Plugin plugin,
+                                            String identifier,
+                                            PlaceholderCachePolicy cachePolicy,
+                                            PlaceholderReplacer placeholderReplacer) {
         externalPlaceholders
                 .computeIfAbsent(identifier, CaseInsensitiveLinkedHashMap::new)
-                .put(plugin.getName(), new Placeholder(plugin, placeholderReplacer));
+                .put(plugin.getName(), new Placeholder(plugin, cachePolicy, placeholderReplacer));
+        version++;
     }
 
     public boolean unregisterExternalPlaceholder(Plugin plugin, String identifier) {
@@ -45,9 +54,16 @@ public class PlaceholderRegistry {
             externalPlaceholders.remove(identifier);
         }
 
+        if (removed) {
+            version++;
+        }
         return removed;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
     public @Nullable Placeholder getPlaceholder(PlaceholderMatch placeholderMatch) {
         String identifier = placeholderMatch.getIdentifier();
 
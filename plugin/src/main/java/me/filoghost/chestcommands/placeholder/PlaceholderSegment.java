@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.placeholder;
+
+import me.filoghost.chestcommands.placeholder.scanner.PlaceholderMatch;
+import org.bukkit.entity.Player;
+
+class PlaceholderSegment implements TemplateSegment {
+
+    private final PlaceholderMatch placeholderMatch;
+    private final String placeholderText; // Displayed as it is if the placeholder is not replaced
+    private final int cacheId;
+
+    // Resolved once and then only when placeholders are registered or unregistered
+    private Placeholder placeholder;
+    private int resolvedRegistryVersion;
+
+    PlaceholderSegment(PlaceholderMatch placeholderMatch, String placeholderText) {
+        this.placeholderMatch = placeholderMatch;
+        this.placeholderText = placeholderText;
+        this.cacheId = PlaceholderManager.getCacheId(placeholderMatch);
+        this.resolvedRegistryVersion = -1;
+    }
+
+    @Override
+    public void appendTo(StringBuilder output, Player player) {
+        String replacement = null;
+        Placeholder placeholder = getPlaceholder();
+
+        if (placeholder != null) {
+            replacement = PlaceholderManager.getReplacement(cacheId, placeholderMatch, placeholder, player);
+        }
+
+        if (replacement != null) {
+            output.append(replacement);
+        } else {
+            output.append(placeholderText);
+        }
+    }
+
+    private Placeholder getPlaceholder() {
+        int registryVersion = PlaceholderManager.getRegistryVersion();
+        if (resolvedRegistryVersion != registryVersion) {
+            placeholder = PlaceholderManager.getPlaceholder(placeholderMatch);
+            resolvedRegistryVersion = registryVersion;
+        }
+        return placeholder;
+    }
+
+}
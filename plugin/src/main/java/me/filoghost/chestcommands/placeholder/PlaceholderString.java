@@ -12,7 +12,7 @@ public class PlaceholderString {
 
     private final String originalString;
     private final String stringWithStaticPlaceholders;
-    private final boolean hasDynamicPlaceholders;
+    private final PlaceholderTemplate template;
 
     public static @Nullable PlaceholderString of(String string) {
         if (string != null) {
@@ -25,12 +25,19 @@ public class PlaceholderString {
     private PlaceholderString(String originalString) {
         this.originalString = originalString;
         this.stringWithStaticPlaceholders = PlaceholderManager.replaceStaticPlaceholders(originalString);
-        this.hasDynamicPlaceholders = PlaceholderManager.hasDynamicPlaceholders(stringWithStaticPlaceholders);
+
+        // Compile only once, to avoid scanning the string on each rendering
+        PlaceholderTemplate template = PlaceholderTemplate.compile(stringWithStaticPlaceholders);
+        if (template.hasPlaceholders()) {
+            this.template = template;
+        } else {
+            this.template = null;
+        }
     }
     
     public String getValue(Player player) {
-        if (hasDynamicPlaceholders) {
-            return PlaceholderManager.replaceDynamicPlaceholders(stringWithStaticPlaceholders, player);
+        if (template != null) {
+            return template.render(player);
         } else {
             return stringWithStaticPlaceholders;
         }
@@ -41,7 +48,7 @@ public class PlaceholderString {
     }
 
     public boolean hasDynamicPlaceholders() {
-        return hasDynamicPlaceholders;
+        return template != null;
     }
 
 }
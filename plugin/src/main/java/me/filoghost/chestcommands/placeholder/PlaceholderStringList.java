@@ -30,9 +30,10 @@ public class PlaceholderStringList {
             this.listWithStaticPlaceholders = originalList;
         }
 
-        this.hasDynamicPlaceholders = PlaceholderManager.hasDynamicPlaceholders(listWithStaticPlaceholders);
+        ImmutableList<PlaceholderString> placeholderStringList = CollectionUtils.toImmutableList(listWithStaticPlaceholders, PlaceholderString::of);
+        this.hasDynamicPlaceholders = placeholderStringList.stream().anyMatch(PlaceholderString::hasDynamicPlaceholders);
         if (hasDynamicPlaceholders) {
-            this.placeholderStringList = CollectionUtils.toImmutableList(listWithStaticPlaceholders, PlaceholderString::of);
+            this.placeholderStringList = placeholderStringList;
         } else {
             this.placeholderStringList = null;
         }
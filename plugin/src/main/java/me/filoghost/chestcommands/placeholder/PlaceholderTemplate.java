@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.placeholder;
+
+import me.filoghost.chestcommands.placeholder.scanner.PlaceholderMatch;
+import me.filoghost.chestcommands.placeholder.scanner.PlaceholderScanner;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * A string compiled once into literal text chunks and placeholder references, so that rendering it doesn't require
+ * scanning and parsing the string again.
+ */
+class PlaceholderTemplate {
+
+    // Taken while rendering and put back afterwards, so that nested renderings on the same thread use a new builder
+    private static final ThreadLocal<StringBuilder> reusableOutput = new ThreadLocal<>();
+
+    private final TemplateSegment[] segments;
+    private final int placeholderCount;
+    private final int estimateLength;
+
+    private PlaceholderTemplate(TemplateSegment[] segments, int placeholderCount, int estimateLength) {
+        this.segments = segments;
+        this.placeholderCount = placeholderCount;
+        this.estimateLength = estimateLength;
+    }
+
+    static PlaceholderTemplate compile(String text) {
+        TemplateBuilder templateBuilder = new TemplateBuilder(text);
+        new PlaceholderScanner(text).forEachMatch(templateBuilder::appendPlaceholder);
+        return templateBuilder.build();
+    }
+
+    boolean hasPlaceholders() {
+        return placeholderCount > 0;
+    }
+
+    String render(Player player) {
+        StringBuilder output = reusableOutput.get();
+        if (output != null) {
+            reusableOutput.set(null);
+        } else {
+            output = new StringBuilder(estimateLength);
+        }
+
+        try {
+            for (TemplateSegment segment : segments) {
+                segment.appendTo(output, player);
+            }
+            return output.toString();
+        } finally {
+            output.setLength(0);
+            reusableOutput.set(output);
+        }
+    }
+
+
+    private static class TemplateBuilder {
+
+        private final String text;
+        private final List<TemplateSegment> segments = new ArrayList<>();
+        private int lastAppendIndex;
+        private int literalLength;
+        private int placeholderCount;
+
+        private TemplateBuilder(String text) {
+            this.text = text;
+        }
+
+        private void appendPlaceholder(PlaceholderMatch match, int startIndex, int endIndex) {
+            appendLiteral(startIndex);
+            segments.add(new PlaceholderSegment(match, text.substring(startIndex, endIndex)));
+            placeholderCount++;
+            lastAppendIndex = endIndex;
+        }
+
+        private void appendLiteral(int endIndex) {
+            if (endIndex <= lastAppendIndex) {
+                return;
+            }
+
+            if (PlaceholderManager.isPlaceholderAPIEnabled()) {
+                appendPlaceholderAPIPlaceholders(endIndex);
+            }
+            appendLiteralText(endIndex);
+        }
+
+        /*
+         * Finds the PlaceholderAPI placeholders (in the format %identifier_params%) only once, so that they can be
+         * replaced individually instead of parsing the whole string on each rendering.
+         */
+        private void appendPlaceholderAPIPlaceholders(int endIndex) {
+            int startIndex = text.indexOf('%', lastAppendIndex);
+
+            while (startIndex >= 0 && startIndex < endIndex) {
+                int closingIndex = text.indexOf('%', startIndex + 1);
+                if (closingIndex < 0 || closingIndex >= endIndex) {
+                    return;
+                }
+
+                int separatorIndex = text.indexOf('_', startIndex + 1);
+                if (separatorIndex > startIndex + 1 && separatorIndex < closingIndex) {
+                    appendLiteralText(startIndex);
+                    segments.add(new PlaceholderAPISegment(text.substring(startIndex, closingIndex + 1)));
+                    placeholderCount++;
+                    lastAppendIndex = closingIndex + 1;
+                    startIndex = text.indexOf('%', lastAppendIndex);
+                } else {
+                    // Not a placeholder, the closing percent sign may be the start of the next one
+                    startIndex = closingIndex;
+                }
+            }
+        }
+
+        private void appendLiteralText(int endIndex) {
+            if (endIndex > lastAppendIndex) {
+                segments.add(new LiteralSegment(text.substring(lastAppendIndex, endIndex)));
+                literalLength += endIndex - lastAppendIndex;
+                lastAppendIndex = endIndex;
+            }
+        }
+
+        private PlaceholderTemplate build() {
+            appendLiteral(text.length()); // Trailing text
+
+            // Reserve some space for each replacement
+            int estimateLength = literalLength + placeholderCount * 16;
+            return new PlaceholderTemplate(segments.toArray(new TemplateSegment[0]), placeholderCount, estimateLength);
+        }
+
+    }
+
+}
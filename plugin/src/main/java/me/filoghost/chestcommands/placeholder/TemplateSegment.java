@@ -0,0 +1,14 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.placeholder;
+
+import org.bukkit.entity.Player;
+
+interface TemplateSegment {
+
+    void appendTo(StringBuilder output, Player player);
+
+}
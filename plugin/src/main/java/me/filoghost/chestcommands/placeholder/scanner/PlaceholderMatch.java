@@ -5,8 +5,6 @@
  */
 package me.filoghost.chestcommands.placeholder.scanner;
 
-import me.filoghost.fcommons.Strings;
-
 import java.util.Objects;
 
 public class PlaceholderMatch {
@@ -41,27 +39,50 @@ public class PlaceholderMatch {
      * {pluginName/identifier: argument}
      */
     public static PlaceholderMatch parse(String placeholderContent) {
+        return parse(placeholderContent, 0, placeholderContent.length());
+    }
+
+    /*
+     * Parses the content between the start (inclusive) and end (exclusive) indexes, without intermediate substrings.
+     */
+    public static PlaceholderMatch parse(String input, int startIndex, int endIndex) {
         String explicitPluginName = null;
-        String identifier;
         String argument = null;
+        int identifierStartIndex = startIndex;
+        int identifierEndIndex = endIndex;
 
-        if (placeholderContent.contains(":")) {
-            String[] parts = Strings.splitAndTrim(placeholderContent, ":", 2);
-            identifier = parts[0];
-            argument = parts[1];
-        } else {
-            identifier = placeholderContent;
+        int argumentSeparatorIndex = indexOf(input, ':', startIndex, endIndex);
+        if (argumentSeparatorIndex >= 0) {
+            argument = trimmedSubstring(input, argumentSeparatorIndex + 1, endIndex);
+            identifierEndIndex = argumentSeparatorIndex;
         }
 
-        if (identifier.contains("/")) {
-            String[] parts = Strings.splitAndTrim(identifier, "/", 2);
-            explicitPluginName = parts[0];
-            identifier = parts[1];
+        int namespaceSeparatorIndex = indexOf(input, '/', identifierStartIndex, identifierEndIndex);
+        if (namespaceSeparatorIndex >= 0) {
+            explicitPluginName = trimmedSubstring(input, identifierStartIndex, namespaceSeparatorIndex);
+            identifierStartIndex = namespaceSeparatorIndex + 1;
         }
 
+        String identifier = trimmedSubstring(input, identifierStartIndex, identifierEndIndex);
         return new PlaceholderMatch(explicitPluginName, identifier, argument);
     }
 
+    private static int indexOf(String input, char searchChar, int startIndex, int endIndex) {
+        int index = input.indexOf(searchChar, startIndex);
+        return index < endIndex ? index : -1;
+    }
+
+    // Same as substring(startIndex, endIndex).trim()
+    private static String trimmedSubstring(String input, int startIndex, int endIndex) {
+        while (startIndex < endIndex && input.charAt(startIndex) <= ' ') {
+            startIndex++;
+        }
+        while (endIndex > startIndex && input.charAt(endIndex - 1) <= ' ') {
+            endIndex--;
+        }
+        return input.substring(startIndex, endIndex);
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) {
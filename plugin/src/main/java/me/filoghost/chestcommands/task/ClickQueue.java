@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.task;
+
+import me.filoghost.fcommons.logging.Log;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+/*
+ * Icon clicks are handled after the click event, on the next tick. Instead of scheduling a task for each click, they are
+ * queued and processed all together in order by the ticking task. Must only be used from the main thread.
+ */
+public class ClickQueue {
+
+    private static final long DROPPED_CLICKS_WARNING_INTERVAL_MILLIS = 60 * 1000;
+
+    private static final Queue<Runnable> pendingClicks = new ArrayDeque<>();
+    private static int maxSize = 1000;
+
+    private static int lastTickProcessedClicks;
+    private static int maxTickProcessedClicks;
+    private static long droppedClicks;
+
+    private static long droppedClicksSinceWarning;
+    private static long lastWarningTimeMillis;
+
+    /*
+     * Returns false if the click was dropped because the queue is full.
+     */
+    public static boolean add(Runnable clickHandler) {
+        if (maxSize > 0 && pendingClicks.size() >= maxSize) {
+            droppedClicks++;
+            droppedClicksSinceWarning++;
+            warnDroppedClicks();
+            return false;
+        }
+
+        pendingClicks.add(clickHandler);
+        return true;
+    }
+
+    private static void warnDroppedClicks() {
+        // At most once per interval, the following clicks are counted in the next warning
+        long now = System.currentTimeMillis();
+        if (now - lastWarningTimeMillis < DROPPED_CLICKS_WARNING_INTERVAL_MILLIS) {
+            return;
+        }
+
+        Log.warning("Ignored " + droppedClicksSinceWarning + " icon click(s) because too many clicks were waiting to be handled"
+                + " (" + maxSize + "). If this happens without click spam, increase \"click-queue-max-size\" in config.yml.");
+        droppedClicksSinceWarning = 0;
+        lastWarningTimeMillis = now;
+    }
+
+    /*
+     * Clicks added while processing, for example by a click that opens another menu, are processed on the next tick.
+     */
+    static void processPendingClicks() {
+        int count = pendingClicks.size();
+
+        for (int i = 0; i < count; i++) {
+            pendingClicks.remove().run();
+        }
+
+        lastTickProcessedClicks = count;
+        maxTickProcessedClicks = Math.max(maxTickProcessedClicks, count);
+    }
+
+    public static void setMaxSize(int maxSize) {
+        ClickQueue.maxSize = maxSize;
+    }
+
+    public static int getPendingClicks() {
+        return pendingClicks.size();
+    }
+
+    public static int getLastTickProcessedClicks() {
+        return lastTickProcessedClicks;
+    }
+
+    public static int getMaxTickProcessedClicks() {
+        return maxTickProcessedClicks;
+    }
+
+    public static long getDroppedClicks() {
+        return droppedClicks;
+    }
+
+}
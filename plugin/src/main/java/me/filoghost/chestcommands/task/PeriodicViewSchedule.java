@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.task;
+
+import me.filoghost.chestcommands.inventory.DefaultMenuView;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Open menu views grouped by their period in ticks: on each tick only the groups whose period is due are visited,
+ * instead of scanning all the online players.
+ *
+ * Inside a period, each view can be assigned a different phase (offset in ticks) so that the views of the same menu
+ * are not all due on the same tick.
+ */
+public class PeriodicViewSchedule {
+
+    private final Map<Integer, PeriodGroup> groupsByPeriod = new HashMap<>();
+    private final Map<DefaultMenuView, Integer> phaseByView = new HashMap<>();
+
+    public void add(DefaultMenuView menuView, int periodTicks, boolean spreadPhase) {
+        if (periodTicks <= 0 || phaseByView.containsKey(menuView)) {
+            return;
+        }
+
+        PeriodGroup group = groupsByPeriod.computeIfAbsent(periodTicks, PeriodGroup::new);
+        int phase = spreadPhase ? group.nextPhase() : 0;
+        group.add(menuView, phase);
+        phaseByView.put(menuView, phase);
+    }
+
+    public void remove(DefaultMenuView menuView, int periodTicks) {
+        Integer phase = phaseByView.remove(menuView);
+        if (phase == null) {
+            return;
+        }
+
+        PeriodGroup group = groupsByPeriod.get(periodTicks);
+        if (group == null) {
+            return;
+        }
+
+        group.remove(menuView, phase);
+        if (group.isEmpty()) {
+            groupsByPeriod.remove(periodTicks);
+        }
+    }
+
+    public void collectDueViews(long currentTick, Collection<DefaultMenuView> output) {
+        for (PeriodGroup group : groupsByPeriod.values()) {
+            group.collectDueViews(currentTick, output);
+        }
+    }
+
+    public boolean isEmpty() {
+        return groupsByPeriod.isEmpty();
+    }
+
+
+    private static class PeriodGroup {
+
+        private final int periodTicks;
+        private final Map<Integer, Set<DefaultMenuView>> viewsByPhase = new HashMap<>();
+        private int phaseCounter;
+
+        private PeriodGroup(int periodTicks) {
+            this.periodTicks = periodTicks;
+        }
+
+        private int nextPhase() {
+            // The least populated phase, starting after the last assigned one: views are removed unevenly, so a plain
+            // round-robin would end up with some phases more crowded than others
+            int bestPhase = phaseCounter;
+            int bestPhaseSize = Integer.MAX_VALUE;
+
+            for (int i = 0; i < periodTicks; i++) {
+                int phase = (phaseCounter + i) % periodTicks;
+                int phaseSize = getPhaseSize(phase);
+                if (phaseSize < bestPhaseSize) {
+                    bestPhase = phase;
+                    bestPhaseSize = phaseSize;
+                    if (phaseSize == 0) {
+                        break; // Can't do better
+                    }
+                }
+            }
+
+            phaseCounter = (bestPhase + 1) % periodTicks;
+            return bestPhase;
+        }
+
+        private int getPhaseSize(int phase) {
+            Set<DefaultMenuView> menuViews = viewsByPhase.get(phase);
+            return menuViews != null ? menuViews.size() : 0;
+        }
+
+        private void add(DefaultMenuView menuView, int phase) {
+            viewsByPhase.computeIfAbsent(phase, key -> new LinkedHashSet<>()).add(menuView);
+        }
+
+        private void remove(DefaultMenuView menuView, int phase) {
+            Set<DefaultMenuView> menuViews = viewsByPhase.get(phase);
+            if (menuViews == null) {
+                return;
+            }
+
+            menuViews.remove(menuView);
+            if (menuViews.isEmpty()) {
+                viewsByPhase.remove(phase);
+            }
+        }
+
+        private void collectDueViews(long currentTick, Collection<DefaultMenuView> output) {
+            Set<DefaultMenuView> menuViews = viewsByPhase.get((int) (currentTick % periodTicks));
+            if (menuViews != null) {
+                output.addAll(menuViews);
+            }
+        }
+
+        private boolean isEmpty() {
+            return viewsByPhase.isEmpty();
+        }
+
+    }
+
+}
@@ -5,20 +5,33 @@
  */
 package me.filoghost.chestcommands.task;
 
+import me.filoghost.chestcommands.config.Settings;
 import me.filoghost.chestcommands.inventory.DefaultMenuView;
 import me.filoghost.chestcommands.listener.InventoryListener;
-import me.filoghost.chestcommands.menu.InternalMenu;
 import me.filoghost.chestcommands.menu.MenuManager;
 import me.filoghost.chestcommands.placeholder.PlaceholderManager;
-import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 public class TickingTask implements Runnable {
 
+    // Auto-refresh statistics: the slots of the refreshed views, and those that actually changed
+    private static long refreshedSlotsCount;
+    private static long changedSlotsCount;
+
+    private final List<DefaultMenuView> dueAutoCloseViews = new ArrayList<>();
+    // Views waiting to be refreshed, including those left over from previous ticks because of the slots budget
+    private final Set<DefaultMenuView> pendingRefreshViews = new LinkedHashSet<>();
     private long currentTick;
 
     @Override
     public void run() {
+        ClickQueue.processPendingClicks();
         updateMenus();
         PlaceholderManager.onTick();
 
@@ -26,24 +39,64 @@ public class TickingTask implements Runnable {
     }
 
     private void updateMenus() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            DefaultMenuView menuView = MenuManager.getOpenMenuView(player);
-
-            if (menuView == null || !(menuView.getMenu() instanceof InternalMenu)) {
-                continue;
-            }
-
-            int autoCloseTicks = ((InternalMenu) menuView.getMenu()).getAutoCloseTicks();
-            if (autoCloseTicks > 0 && currentTick % autoCloseTicks == 0) {
+        // Collect the views first, since closing a view removes it from the schedule
+        MenuManager.getAutoCloseSchedule().collectDueViews(currentTick, dueAutoCloseViews);
+        for (DefaultMenuView menuView : dueAutoCloseViews) {
+            Player player = menuView.getViewer();
+            if (isStillOpen(menuView)) {
                 InventoryListener.setCanPlayerClose_AutoOpenMenu(player, true);
                 player.closeInventory();
             }
+        }
+        dueAutoCloseViews.clear();
+
+        MenuManager.getRefreshSchedule().collectDueViews(currentTick, pendingRefreshViews);
+        refreshPendingViews(Settings.get().auto_refresh__max_slots_per_tick);
+    }
+
+    private void refreshPendingViews(int maxSlotsPerTick) {
+        int refreshedSlots = 0;
+        Iterator<DefaultMenuView> iterator = pendingRefreshViews.iterator();
+
+        while (iterator.hasNext()) {
+            DefaultMenuView menuView = iterator.next();
+            int menuSize = menuView.getMenu().getIcons().getSize();
+
+            // Always refresh at least one view per tick, the remaining ones are carried over to the next tick
+            if (maxSlotsPerTick > 0 && refreshedSlots > 0 && refreshedSlots + menuSize > maxSlotsPerTick) {
+                break;
+            }
 
-            int refreshTicks = ((InternalMenu) menuView.getMenu()).getRefreshTicks();
-            if (refreshTicks > 0 && currentTick % refreshTicks == 0) {
-                menuView.refresh();
+            iterator.remove();
+            if (isStillOpen(menuView)) {
+                changedSlotsCount += menuView.refreshChangedSlots();
+                refreshedSlots += menuSize;
             }
         }
+
+        refreshedSlotsCount += refreshedSlots;
+    }
+
+    private boolean isStillOpen(DefaultMenuView menuView) {
+        if (!menuView.isOpen()) {
+            return false;
+        }
+
+        if (!menuView.getViewer().isOnline()) {
+            // Should not happen, the close event is called before quitting
+            menuView.onClose();
+            return false;
+        }
+
+        return true;
+    }
+
+    public static long getRefreshedSlotsCount() {
+        return refreshedSlotsCount;
+    }
+
+    public static long getChangedSlotsCount() {
+        return changedSlotsCount;
     }
 
 }
@@ -0,0 +1,59 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.listener;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ClickRateLimiterTest {
+
+    private static final long ONE_HOUR_MILLIS = 60 * 60 * 1000;
+
+    @Test
+    void burstThenReject() {
+        ClickRateLimiter rateLimiter = new ClickRateLimiter();
+        UUID player = UUID.randomUUID();
+
+        assertThat(rateLimiter.tryAcquire(player, 3, ONE_HOUR_MILLIS)).isTrue();
+        assertThat(rateLimiter.tryAcquire(player, 3, ONE_HOUR_MILLIS)).isTrue();
+        assertThat(rateLimiter.tryAcquire(player, 3, ONE_HOUR_MILLIS)).isTrue();
+        assertThat(rateLimiter.tryAcquire(player, 3, ONE_HOUR_MILLIS)).isFalse();
+        assertThat(rateLimiter.tryAcquire(player, 3, ONE_HOUR_MILLIS)).isFalse();
+    }
+
+    @Test
+    void playersAreIndependent() {
+        ClickRateLimiter rateLimiter = new ClickRateLimiter();
+
+        assertThat(rateLimiter.tryAcquire(UUID.randomUUID(), 1, ONE_HOUR_MILLIS)).isTrue();
+        assertThat(rateLimiter.tryAcquire(UUID.randomUUID(), 1, ONE_HOUR_MILLIS)).isTrue();
+    }
+
+    @Test
+    void removeResetsBucket() {
+        ClickRateLimiter rateLimiter = new ClickRateLimiter();
+        UUID player = UUID.randomUUID();
+
+        assertThat(rateLimiter.tryAcquire(player, 1, ONE_HOUR_MILLIS)).isTrue();
+        assertThat(rateLimiter.tryAcquire(player, 1, ONE_HOUR_MILLIS)).isFalse();
+        rateLimiter.remove(player);
+        assertThat(rateLimiter.tryAcquire(player, 1, ONE_HOUR_MILLIS)).isTrue();
+    }
+
+    @Test
+    void disabledWithoutDelay() {
+        ClickRateLimiter rateLimiter = new ClickRateLimiter();
+        UUID player = UUID.randomUUID();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(rateLimiter.tryAcquire(player, 1, 0)).isTrue();
+        }
+    }
+
+}
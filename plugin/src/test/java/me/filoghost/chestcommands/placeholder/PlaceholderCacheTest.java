@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.placeholder;
+
+import me.filoghost.chestcommands.api.PlaceholderCachePolicy;
+import me.filoghost.chestcommands.test.BukkitMocks;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PlaceholderCacheTest {
+
+    private static final Player PLAYER = BukkitMocks.PLAYER;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 20})
+    void ticksPolicyExpiresAfterDuration(int ticks) {
+        PlaceholderCache cache = new PlaceholderCache();
+        PlaceholderCachePolicy cachePolicy = PlaceholderCachePolicy.ticks(ticks);
+        cache.put(0, PLAYER, cachePolicy, "value");
+
+        // Valid for the tick in which it was computed and the following ones, up to the given duration
+        for (int i = 1; i < ticks; i++) {
+            cache.onTick();
+        }
+        assertThat(cache.get(0, PLAYER, cachePolicy)).isEqualTo("value");
+
+        cache.onTick();
+        assertThat(cache.get(0, PLAYER, cachePolicy)).isNull();
+    }
+
+    @Test
+    void sessionPolicyNeverExpires() {
+        PlaceholderCache cache = new PlaceholderCache();
+        cache.put(0, PLAYER, PlaceholderCachePolicy.session(), "value");
+
+        for (int i = 0; i < 1000; i++) {
+            cache.onTick();
+        }
+
+        assertThat(cache.get(0, PLAYER, PlaceholderCachePolicy.session())).isEqualTo("value");
+    }
+
+    @Test
+    void invalidateExpiringKeepsNeverExpiring() {
+        PlaceholderCache cache = new PlaceholderCache();
+        cache.put(0, PLAYER, PlaceholderCachePolicy.ticks(100), "expiring");
+        cache.put(1, PLAYER, PlaceholderCachePolicy.session(), "session");
+        cache.put(2, PLAYER, PlaceholderCachePolicy.permanent(), "permanent");
+
+        cache.invalidateExpiring(PLAYER);
+
+        assertThat(cache.get(0, PLAYER, PlaceholderCachePolicy.ticks(100))).isNull();
+        assertThat(cache.get(1, PLAYER, PlaceholderCachePolicy.session())).isEqualTo("session");
+        assertThat(cache.get(2, PLAYER, PlaceholderCachePolicy.permanent())).isEqualTo("permanent");
+    }
+
+    @Test
+    void lastKnownReturnsExpiredValue() {
+        PlaceholderCache cache = new PlaceholderCache();
+        cache.put(0, PLAYER, PlaceholderCachePolicy.everyTick(), "value");
+        cache.onTick();
+        cache.put(1, PLAYER, PlaceholderCachePolicy.ticks(100), "invalidated");
+        cache.invalidateExpiring(PLAYER);
+
+        assertThat(cache.get(0, PLAYER, PlaceholderCachePolicy.everyTick())).isNull();
+        assertThat(cache.getLastKnown(0, PLAYER, PlaceholderCachePolicy.everyTick())).isEqualTo("value");
+        assertThat(cache.getLastKnown(1, PLAYER, PlaceholderCachePolicy.ticks(100))).isEqualTo("invalidated");
+    }
+
+    @Test
+    void viewerIndependentIsShared() {
+        PlaceholderCache cache = new PlaceholderCache();
+        Player otherPlayer = mock(Player.class);
+        PlaceholderCachePolicy sharedPolicy = PlaceholderCachePolicy.everyTick().viewerIndependent();
+
+        cache.put(0, PLAYER, sharedPolicy, "shared");
+        cache.put(1, PLAYER, PlaceholderCachePolicy.everyTick(), "personal");
+
+        assertThat(cache.get(0, otherPlayer, sharedPolicy)).isEqualTo("shared");
+        assertThat(cache.get(1, otherPlayer, PlaceholderCachePolicy.everyTick())).isNull();
+    }
+
+    @Test
+    void largeIdsGrowStorage() {
+        PlaceholderCache cache = new PlaceholderCache();
+        cache.put(0, PLAYER, PlaceholderCachePolicy.session(), "first");
+        cache.put(100, PLAYER, PlaceholderCachePolicy.session(), "large");
+
+        assertThat(cache.get(0, PLAYER, PlaceholderCachePolicy.session())).isEqualTo("first");
+        assertThat(cache.get(100, PLAYER, PlaceholderCachePolicy.session())).isEqualTo("large");
+        assertThat(cache.get(50, PLAYER, PlaceholderCachePolicy.session())).isNull();
+        assertThat(cache.get(200, PLAYER, PlaceholderCachePolicy.session())).isNull();
+    }
+
+}
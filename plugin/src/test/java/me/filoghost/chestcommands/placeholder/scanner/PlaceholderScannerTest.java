@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) filoghost and contributors
+ *
+ * SPDX-License-Identifier: GPL-3.0-or-later
+ */
+package me.filoghost.chestcommands.placeholder.scanner;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PlaceholderScannerTest {
+
+    @Test
+    void forEachMatch() {
+        List<String> matches = findMatches("Hello {player}, {plugin/money: 2}!");
+
+        assertThat(matches).containsExactly("player@6-14", "money@16-33");
+    }
+
+    @Test
+    void forEachMatchNestedPlaceholder() {
+        List<String> matches = findMatches("{a{player}}");
+
+        assertThat(matches).containsExactly("player@2-10");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"no placeholders", "{unclosed", "}{", ""})
+    void forEachMatchWithoutPlaceholders(String input) {
+        assertThat(findMatches(input)).isEmpty();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "'player', , player, ",
+            "' player ', , player, ",
+            "'money: 2', , money, 2",
+            "'plugin/money', plugin, money, ",
+            "'plugin / money : a:b', plugin, money, a:b",
+            "'money: a/b', , money, a/b",
+    })
+    void parseMatch(String content, String pluginNamespace, String identifier, String argument) {
+        PlaceholderMatch match = PlaceholderMatch.parse("{" + content + "}", 1, content.length() + 1);
+
+        assertThat(match.getPluginNamespace()).isEqualTo(pluginNamespace);
+        assertThat(match.getIdentifier()).isEqualTo(identifier);
+        assertThat(match.getArgument()).isEqualTo(argument);
+    }
+
+    private List<String> findMatches(String input) {
+        List<String> matches = new ArrayList<>();
+        new PlaceholderScanner(input).forEachMatch((match, startIndex, endIndex) -> {
+            matches.add(match.getIdentifier() + "@" + startIndex + "-" + endIndex);
+        });
+        return matches;
+    }
+
+}